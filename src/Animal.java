@@ -5,34 +5,89 @@ public abstract class Animal {
 
     // Características compartilhadas por todos os coelhos (atributos estáticos, da classe).
 
-    // Um gerador de números aleatórios compartilhado para controlar a reprodução.
-    private static final Random rand = Randomizador.obterRandom();
-
     // Características individuais (atributos comuns, de instância).
     
     // A idade do animal.
     private int idade;
     // Indica se o animal está vivo ou não.
     private boolean vivo;
+    // Por que o animal morreu (null se estiver vivo ou tiver sido descartado).
+    private CausaDeMorte causaDaMorte;
     // A localização do animal.
     private Localizacao localizacao;
     // O campo ocupado.
     private Campo campo;
+    // Os parâmetros da simulação (guardados porque o campo é esquecido quando o animal morre).
+    private Parametros parametros;
 
     public Animal(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
+    {
+        inicializar(idadeAleatoria, campo, localizacao);
+    }
+
+    /**
+     * Devolve à simulação um animal morto (retirado de um ReservatorioDeAnimais),
+     * deixando-o exatamente como um animal recém-criado com os mesmos
+     * argumentos, inclusive quanto aos valores aleatórios sorteados.
+     * @param idadeAleatoria Se verdadeiro, o animal terá idade (e estado) aleatórios.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao A localização dentro do campo.
+     */
+    void reinicializar(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
+    {
+        inicializar(idadeAleatoria, campo, localizacao);
+        inicializarEspecie(idadeAleatoria);
+    }
+
+    /**
+     * Inicializa o estado comum a todos os animais.
+     */
+    private void inicializar(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
     {
         vivo = true;
+        causaDaMorte = null;
         idade = 0;
+        this.localizacao = null;
+        this.campo = campo;
+        parametros = campo.obterParametros();
         if(idadeAleatoria) {
-            idade = rand.nextInt(obterIdadeMaxima());
+            idade = Randomizador.obterRandomAtual().nextInt(obterIdadeMaxima());
         }
-        this.campo = campo;
         definirLocalizacao(localizacao);
     }
 
+    /**
+     * Inicializa o estado próprio da espécie, depois do estado comum. É chamado
+     * pelos construtores das subclasses e ao reinicializar um animal.
+     * @param idadeAleatoria Se verdadeiro, o estado deve ser aleatório.
+     */
+    protected void inicializarEspecie(boolean idadeAleatoria)
+    {
+    }
+
+    /**
+     * Retira o animal da simulação sem limpar sua posição no campo, para
+     * quando o campo inteiro vai ser limpo de uma vez (ao reiniciar).
+     */
+    void descartar()
+    {
+        vivo = false;
+        localizacao = null;
+        campo = null;
+    }
+
     public int obterIdade() {
         return idade;
     }
+
+    /**
+     * Define a idade do animal. Usado apenas ao restaurar um estado salvo
+     * (veja ArquivoDeEstado).
+     * @param idade A idade do animal.
+     */
+    void definirIdade(int idade) {
+        this.idade = idade;
+    }
     
     /**
      * Aumenta a idade.
@@ -42,7 +97,7 @@ public abstract class Animal {
     {
         idade++;
         if(idade > obterIdadeMaxima()) {
-            morrer();
+            morrer(CausaDeMorte.VELHICE);
         }
     }
     
@@ -55,14 +110,32 @@ public abstract class Animal {
         return vivo;
     }
     
+    /**
+     * Retorna por que o animal morreu.
+     * @return A causa da morte, ou null se o animal estiver vivo (ou tiver
+     *         sido retirado da simulação sem morrer, ao reiniciá-la).
+     */
+    public CausaDeMorte obterCausaDaMorte()
+    {
+        return causaDaMorte;
+    }
+    
     /**
      * Define que o animal não está mais vivo.
      * Ele é removido do campo.
+     * @param causa Por que o animal morreu.
      */
-    protected void morrer()
+    protected void morrer(CausaDeMorte causa)
     {
+        if(vivo) {
+            causaDaMorte = causa;
+        }
         vivo = false;
         if(localizacao != null) {
+            RegistroDeEventos registro = campo.obterRegistroDeEventos();
+            if(registro != null) {
+                registro.registrarMorte(campo.obterIndice(localizacao));
+            }
             campo.limpar(localizacao);
             localizacao = null;
             campo = null;
@@ -84,17 +157,37 @@ public abstract class Animal {
      */
     protected void definirLocalizacao(Localizacao novaLocalizacao)
     {
-        if(localizacao != null) {
-            campo.limpar(localizacao);
+        Localizacao anterior = localizacao;
+        if(anterior != null) {
+            campo.limpar(anterior);
         }
         localizacao = novaLocalizacao;
         campo.colocar(this, novaLocalizacao);
+
+        RegistroDeEventos registro = campo.obterRegistroDeEventos();
+        if(registro != null) {
+            int indice = campo.obterIndice(novaLocalizacao);
+            short especie = campo.obterEspecieEm(indice);
+            if(anterior == null) {
+                registro.registrarNascimento(especie, indice);
+            }
+            else {
+                registro.registrarMovimento(especie, campo.obterIndice(anterior), indice);
+            }
+        }
     }
 
     public Campo obterCampo() {
         return campo;
     }
 
+    /**
+     * @return Os parâmetros da simulação da qual o animal faz parte.
+     */
+    protected Parametros obterParametros() {
+        return parametros;
+    }
+
     /**
      * Gera um número representando o número de nascimentos,
      * se puder procriar.
@@ -102,6 +195,7 @@ public abstract class Animal {
      */
     protected int procriar()
     {
+        Random rand = Randomizador.obterRandomAtual();
         int nascimentos = 0;
         if(podeProcriar() && rand.nextDouble() <= obterProbabilidadeReproducao()) {
             nascimentos = rand.nextInt(obterTamanhoMaximoNinhada()) + 1;
@@ -116,18 +210,22 @@ public abstract class Animal {
      */
     protected void reproduzir(List<Animal> novosAnimais)
     {
-        // Novos animais nascem em locais vizinhos.
-        // Obtém uma lista de locais vizinhos livres.
-        List<Localizacao> locaisLivres = obterCampo().localizacoesVizinhasLivres(obterLocalizacao());
         int nascimentos = procriar();
-        for(int n = 0; n < nascimentos && locaisLivres.size() > 0; n++) {
-            Localizacao local = locaisLivres.remove(0);
-            Animal filhote = criarNovoFilhote(false, obterCampo(), local);
+        if(nascimentos == 0) {
+            return;
+        }
+        // Novos animais nascem em locais vizinhos livres, sorteados.
+        Campo campo = obterCampo();
+        int[] locaisLivres = Campo.obterBufferVizinhos();
+        int quantidadeLivres = campo.sortearVizinhosLivres(campo.obterIndice(obterLocalizacao()),
+                                                           nascimentos, locaisLivres);
+        for(int n = 0; n < quantidadeLivres; n++) {
+            Localizacao local = campo.obterLocalizacao(locaisLivres[n]);
+            Animal filhote = criarNovoFilhote(false, campo, local);
             novosAnimais.add(filhote);
         }
     }
 
-
     /**
      * Uma raposa pode procriar se tiver atingido a idade de reprodução.
      */
@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Grava e lê o estado completo de uma simulação em um arquivo binário, para
+ * que uma execução longa possa ser interrompida e continuada depois.
+ *
+ * O arquivo contém um cabeçalho (identificação, versão, dimensões do campo,
+ * passo atual e semente da execução) seguido de um registro de tamanho fixo
+ * para cada animal, na ordem da lista de animais do simulador: espécie,
+ * posição no campo, idade e nível de comida (zero para coelhos). A grade não
+ * é gravada separadamente, pois é exatamente o conjunto das posições dos
+ * animais. Como os sorteios de cada animal dependem apenas da semente da
+ * execução, do passo e da posição (veja GeradorPorContador), isso é tudo o
+ * que é preciso para que a simulação continue exatamente como continuaria
+ * se não tivesse sido interrompida.
+ *
+ * Os dados são transferidos em blocos por um FileChannel, através de um
+ * buffer direto, sem serialização de objetos. Os números são gravados em
+ * ordem big-endian, independentemente da plataforma.
+ *
+ * @version 2025.05.24
+ */
+public class ArquivoDeEstado
+{
+    // Identifica os arquivos de estado ("RECO").
+    private static final int IDENTIFICACAO = 0x5245434F;
+    // Versão do formato do arquivo.
+    private static final int VERSAO = 1;
+    // Tamanho do cabeçalho e de cada registro de animal, em bytes.
+    private static final int TAMANHO_CABECALHO = 4 + 4 + 4 + 4 + 4 + 8 + 4;
+    private static final int TAMANHO_REGISTRO = 1 + 4 + 4 + 4;
+    // Tamanho do buffer usado nas transferências.
+    private static final int TAMANHO_BUFFER = 1 << 20;
+    // Códigos das espécies no arquivo.
+    private static final byte CODIGO_RAPOSA = 1;
+    private static final byte CODIGO_COELHO = 2;
+
+    // O arquivo lido ou gravado.
+    private Path caminho;
+    // O passo e a semente da execução, do último estado lido ou gravado.
+    private int passo;
+    private long semente;
+
+    /**
+     * Cria um acesso ao arquivo de estado fornecido.
+     * @param caminho O arquivo.
+     */
+    public ArquivoDeEstado(Path caminho)
+    {
+        this.caminho = caminho;
+    }
+
+    /**
+     * Grava o estado de uma simulação, substituindo o conteúdo do arquivo.
+     * @param campo O campo da simulação.
+     * @param animais Os animais vivos, na ordem em que agem.
+     * @param passo O passo atual.
+     * @param semente A semente da execução.
+     * @throws IOException Se não for possível gravar o arquivo.
+     */
+    public void gravar(Campo campo, List<Animal> animais, int passo, long semente) throws IOException
+    {
+        this.passo = passo;
+        this.semente = semente;
+        try(FileChannel canal = FileChannel.open(caminho, StandardOpenOption.CREATE,
+                                                 StandardOpenOption.WRITE,
+                                                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            buffer.putInt(IDENTIFICACAO);
+            buffer.putInt(VERSAO);
+            buffer.putInt(campo.obterComprimento());
+            buffer.putInt(campo.obterLargura());
+            buffer.putInt(passo);
+            buffer.putLong(semente);
+            buffer.putInt(animais.size());
+
+            for(Animal animal : animais) {
+                if(buffer.remaining() < TAMANHO_REGISTRO) {
+                    descarregar(canal, buffer);
+                }
+                int nivelComida = 0;
+                if(animal instanceof Raposa) {
+                    buffer.put(CODIGO_RAPOSA);
+                    nivelComida = ((Raposa) animal).obterNivelComida();
+                }
+                else if(animal instanceof Coelho) {
+                    buffer.put(CODIGO_COELHO);
+                }
+                else {
+                    throw new IllegalArgumentException("Espécie não suportada: " + animal.getClass());
+                }
+                buffer.putInt(campo.obterIndice(animal.obterLocalizacao()));
+                buffer.putInt(animal.obterIdade());
+                buffer.putInt(nivelComida);
+            }
+            descarregar(canal, buffer);
+        }
+    }
+
+    /**
+     * Lê um estado gravado, colocando os animais no campo fornecido (que é
+     * esvaziado antes) e na lista fornecida, na ordem em que foram gravados.
+     * Depois da leitura, o passo e a semente podem ser consultados.
+     * @param campo O campo, com as mesmas dimensões do campo gravado.
+     * @param animais Uma lista vazia para receber os animais.
+     * @throws IOException Se não for possível ler o arquivo ou se ele não for válido.
+     */
+    public void ler(Campo campo, List<Animal> animais) throws IOException
+    {
+        try(FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+            // Começa sem nenhum byte disponível para leitura.
+            buffer.limit(0);
+            carregar(canal, buffer, TAMANHO_CABECALHO);
+            if(buffer.getInt() != IDENTIFICACAO || buffer.getInt() != VERSAO) {
+                throw new IOException("Não é um arquivo de estado válido: " + caminho);
+            }
+            int comprimento = buffer.getInt();
+            int largura = buffer.getInt();
+            if(comprimento != campo.obterComprimento() || largura != campo.obterLargura()) {
+                throw new IOException("O estado gravado é de um campo " + comprimento + "x" + largura
+                                      + ", diferente do campo da simulação.");
+            }
+            int passoLido = buffer.getInt();
+            long sementeLida = buffer.getLong();
+            int quantidade = buffer.getInt();
+
+            campo.limpar();
+            int posicoes = comprimento * largura;
+            for(int i = 0; i < quantidade; i++) {
+                if(buffer.remaining() < TAMANHO_REGISTRO) {
+                    carregar(canal, buffer, TAMANHO_REGISTRO);
+                }
+                byte especie = buffer.get();
+                int indice = buffer.getInt();
+                int idade = buffer.getInt();
+                int nivelComida = buffer.getInt();
+                if(indice < 0 || indice >= posicoes) {
+                    throw new IOException("Posição inválida no arquivo de estado: " + indice);
+                }
+                // Os animais são criados como recém-nascidos (o que não
+                // consome valores aleatórios) e depois recebem seu estado.
+                Localizacao localizacao = campo.obterLocalizacao(indice);
+                Animal animal;
+                if(especie == CODIGO_RAPOSA) {
+                    Raposa raposa = Raposa.criar(false, campo, localizacao);
+                    raposa.definirNivelComida(nivelComida);
+                    animal = raposa;
+                }
+                else if(especie == CODIGO_COELHO) {
+                    animal = Coelho.criar(false, campo, localizacao);
+                }
+                else {
+                    throw new IOException("Espécie inválida no arquivo de estado: " + especie);
+                }
+                animal.definirIdade(idade);
+                animais.add(animal);
+            }
+            passo = passoLido;
+            semente = sementeLida;
+        }
+    }
+
+    /**
+     * @return O passo do último estado lido ou gravado.
+     */
+    public int obterPasso()
+    {
+        return passo;
+    }
+
+    /**
+     * @return A semente da execução do último estado lido ou gravado.
+     */
+    public long obterSemente()
+    {
+        return semente;
+    }
+
+    /**
+     * Grava no canal todo o conteúdo do buffer e o prepara para ser preenchido novamente.
+     */
+    private static void descarregar(FileChannel canal, ByteBuffer buffer) throws IOException
+    {
+        buffer.flip();
+        while(buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Lê do canal o quanto couber no buffer, mantendo os bytes ainda não consumidos.
+     * @param minimo Quantos bytes, no mínimo, devem ficar disponíveis no buffer.
+     */
+    private static void carregar(FileChannel canal, ByteBuffer buffer, int minimo) throws IOException
+    {
+        buffer.compact();
+        while(buffer.position() < minimo) {
+            if(canal.read(buffer) < 0) {
+                throw new IOException("Arquivo de estado incompleto.");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,398 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Medições de desempenho dos trechos mais executados da simulação.
+ *
+ * Para cada cenário, algumas iterações de aquecimento são descartadas e em
+ * seguida são feitas as iterações de medição. Para cada uma são medidos a
+ * vazão (operações por segundo), os bytes alocados por operação e o número
+ * de coletas de lixo. Todas as medições usam sementes fixas, para que os
+ * resultados possam ser comparados entre versões do código.
+ *
+ * Uso: java BenchmarkSimulacao [trecho-do-nome]
+ * (apenas os cenários cujo nome contém o trecho fornecido são executados)
+ *
+ * @version 2025.05.24
+ */
+public class BenchmarkSimulacao
+{
+    // A semente usada em todas as medições.
+    private static final long SEMENTE = 42;
+    // Quantas iterações são descartadas e quantas são medidas.
+    private static final int ITERACOES_AQUECIMENTO = 5;
+    private static final int ITERACOES_MEDICAO = 10;
+    // Tamanhos de grade (comprimento, largura) usados nas medições do passo.
+    private static final int[][] TAMANHOS = { {80, 120}, {250, 250}, {500, 500} };
+    // Densidades iniciais (probabilidade de raposa, de coelho) usadas nas medições do passo.
+    private static final double[][] DENSIDADES = {
+        {GeradorDePopulacoes.PROBABILIDADE_CRIACAO_RAPOSA, GeradorDePopulacoes.PROBABILIDADE_CRIACAO_COELHO},
+        {0.05, 0.30}
+    };
+    // Tamanho do campo usado nas medições das demais operações.
+    private static final int TAMANHO_CAMPO = 250;
+    // Fator de escala usado na medição do desenho.
+    private static final int ESCALA_DESENHO = 6;
+
+    // Acumula os resultados das operações, para que não sejam descartadas pelo compilador.
+    private static long sumidouro;
+
+    /**
+     * Um cenário de medição.
+     */
+    private interface Cenario
+    {
+        /**
+         * Prepara o estado para uma iteração (fora da medição).
+         * @return Quantas operações a iteração vai executar.
+         */
+        int preparar();
+
+        /**
+         * Executa uma operação.
+         * @param i O número da operação dentro da iteração.
+         */
+        void executar(int i);
+    }
+
+    public static void main(String[] args)
+    {
+        String filtro = args.length > 0 ? args[0] : "";
+        System.out.printf("%-55s %14s %14s %12s %6s%n",
+                          "Cenário", "ops/s", "B/op", "MB/s alocados", "GCs");
+
+        for(boolean comArranjos : new boolean[] { false, true }) {
+            for(int[] tamanho : TAMANHOS) {
+                for(double[] densidade : DENSIDADES) {
+                    String nome = "simularUmPasso " + (comArranjos ? "arranjos " : "")
+                                  + tamanho[0] + "x" + tamanho[1]
+                                  + " densidade " + densidade[0] + "/" + densidade[1];
+                    if(nome.contains(filtro)) {
+                        medir(nome, cenarioPasso(tamanho[0], tamanho[1], densidade[0], densidade[1],
+                                                 comArranjos));
+                    }
+                }
+            }
+        }
+        if("localizacoesVizinhas".contains(filtro)) {
+            medir("localizacoesVizinhas", cenarioVizinhas(false));
+        }
+        if("localizacoesVizinhasLivres".contains(filtro)) {
+            medir("localizacoesVizinhasLivres", cenarioVizinhas(true));
+        }
+        if("buscarComida".contains(filtro)) {
+            medir("buscarComida", cenarioBuscarComida());
+        }
+        if("gerarContagens".contains(filtro)) {
+            medir("gerarContagens", cenarioContagens());
+        }
+        if("povoar".contains(filtro)) {
+            medir("povoar", cenarioPovoar());
+        }
+        if("desenharCampo".contains(filtro)) {
+            medir("desenharCampo", cenarioDesenho());
+        }
+        if("capturarQuadro".contains(filtro)) {
+            medir("capturarQuadro", cenarioQuadro());
+        }
+        if("registrarPassoSerie".contains(filtro)) {
+            medir("registrarPassoSerie", cenarioSerie());
+        }
+        System.out.println("(sumidouro: " + sumidouro + ")");
+    }
+
+    /**
+     * Executa as iterações de um cenário e imprime os resultados.
+     */
+    private static void medir(String nome, Cenario cenario)
+    {
+        for(int iteracao = 0; iteracao < ITERACOES_AQUECIMENTO; iteracao++) {
+            executarIteracao(cenario);
+        }
+
+        long operacoes = 0;
+        long nanos = 0;
+        long bytes = 0;
+        long coletas = contarColetas();
+        for(int iteracao = 0; iteracao < ITERACOES_MEDICAO; iteracao++) {
+            int quantidade = cenario.preparar();
+            long bytesAntes = bytesAlocados();
+            long inicio = System.nanoTime();
+            for(int i = 0; i < quantidade; i++) {
+                cenario.executar(i);
+            }
+            nanos += System.nanoTime() - inicio;
+            bytes += bytesAlocados() - bytesAntes;
+            operacoes += quantidade;
+        }
+        coletas = contarColetas() - coletas;
+
+        double segundos = nanos / 1e9;
+        System.out.printf("%-55s %14.1f %14.1f %12.1f %6d%n", nome,
+                          operacoes / segundos,
+                          (double) bytes / operacoes,
+                          bytes / segundos / (1024 * 1024),
+                          coletas);
+    }
+
+    /**
+     * Executa uma iteração completa de um cenário, sem medi-la.
+     */
+    private static void executarIteracao(Cenario cenario)
+    {
+        int quantidade = cenario.preparar();
+        for(int i = 0; i < quantidade; i++) {
+            cenario.executar(i);
+        }
+    }
+
+    /**
+     * Mede simularUmPasso em uma grade com o tamanho e a densidade fornecidos,
+     * com o motor sequencial ou com o motor de arranjos.
+     */
+    private static Cenario cenarioPasso(int comprimento, int largura,
+                                        double probabilidadeRaposa, double probabilidadeCoelho,
+                                        boolean comArranjos)
+    {
+        Simulador simulador = new Simulador(comprimento, largura, false);
+        if(comArranjos) {
+            simulador.usarMotorDeArranjos();
+        }
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar(probabilidadeRaposa, probabilidadeCoelho);
+                return 20;
+            }
+
+            public void executar(int i) {
+                simulador.simularUmPasso();
+            }
+        };
+    }
+
+    /**
+     * Mede localizacoesVizinhas ou localizacoesVizinhasLivres em posições aleatórias
+     * de um campo povoado.
+     */
+    private static Cenario cenarioVizinhas(boolean apenasLivres)
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        Localizacao[] localizacoes = new Localizacao[4096];
+        Random rand = new Random(SEMENTE);
+        for(int i = 0; i < localizacoes.length; i++) {
+            localizacoes[i] = campo.obterLocalizacao(rand.nextInt(TAMANHO_CAMPO * TAMANHO_CAMPO));
+        }
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                return 100000;
+            }
+
+            public void executar(int i) {
+                Localizacao localizacao = localizacoes[i % localizacoes.length];
+                if(apenasLivres) {
+                    sumidouro += campo.localizacoesVizinhasLivres(localizacao).size();
+                }
+                else {
+                    sumidouro += campo.localizacoesVizinhas(localizacao).size();
+                }
+            }
+        };
+    }
+
+    /**
+     * Mede buscarComida para todas as raposas de um campo recém-povoado.
+     */
+    private static Cenario cenarioBuscarComida()
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        List<Raposa> raposas = new ArrayList<>();
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar();
+                raposas.clear();
+                for(int indice = 0; indice < TAMANHO_CAMPO * TAMANHO_CAMPO; indice++) {
+                    if(campo.obterObjetoEm(indice) instanceof Raposa) {
+                        raposas.add((Raposa) campo.obterObjetoEm(indice));
+                    }
+                }
+                return raposas.size();
+            }
+
+            public void executar(int i) {
+                if(raposas.get(i).buscarComida() != null) {
+                    sumidouro++;
+                }
+            }
+        };
+    }
+
+    /**
+     * Mede a geração completa das contagens de EstatisticasCampo.
+     */
+    private static Cenario cenarioContagens()
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        EstatisticasCampo estatisticas = new EstatisticasCampo();
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar();
+                return 200;
+            }
+
+            public void executar(int i) {
+                // Invalida as contagens, forçando uma nova varredura do campo.
+                estatisticas.reiniciar();
+                sumidouro += estatisticas.obterContagemPopulacao(campo, Coelho.class);
+            }
+        };
+    }
+
+    /**
+     * Mede GeradorDePopulacoes.povoar.
+     */
+    private static Cenario cenarioPovoar()
+    {
+        Campo campo = new Campo(TAMANHO_CAMPO, TAMANHO_CAMPO);
+        List<Animal> animais = new ArrayList<>();
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                return 20;
+            }
+
+            public void executar(int i) {
+                animais.clear();
+                GeradorDePopulacoes.povoar(campo, animais);
+                sumidouro += animais.size();
+            }
+        };
+    }
+
+    /**
+     * Mede o desenho completo de um quadro feito pela VisaoDeGrade (incluindo
+     * a ampliação da imagem), em uma imagem fora da tela.
+     */
+    private static Cenario cenarioDesenho()
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        RenderizadorDeCampo renderizador = new RenderizadorDeCampo();
+        renderizador.definirCor(Coelho.class, Color.ORANGE);
+        renderizador.definirCor(Raposa.class, Color.BLUE);
+        BufferedImage imagem = new BufferedImage(TAMANHO_CAMPO * ESCALA_DESENHO,
+                                                 TAMANHO_CAMPO * ESCALA_DESENHO,
+                                                 BufferedImage.TYPE_INT_RGB);
+        Graphics g = imagem.getGraphics();
+        return new Cenario() {
+            private Quadro quadro;
+
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar();
+                quadro = Quadro.capturar(0, 0, campo, simulador.obterEstatisticas());
+                return 20;
+            }
+
+            public void executar(int i) {
+                renderizador.desenhar(quadro);
+                g.drawImage(renderizador.obterImagem(), 0, 0, imagem.getWidth(), imagem.getHeight(), null);
+                sumidouro += imagem.getRGB(i, i);
+            }
+        };
+    }
+
+    /**
+     * Mede a criação de um quadro para as visões, feita pela thread da simulação.
+     */
+    private static Cenario cenarioQuadro()
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar();
+                return 200;
+            }
+
+            public void executar(int i) {
+                Quadro quadro = Quadro.capturar(i, 0, campo, simulador.obterEstatisticas());
+                sumidouro += quadro.obterEspecieEm(i);
+            }
+        };
+    }
+
+    /**
+     * Mede o custo, para a thread da simulação, de registrar um passo em um
+     * GravadorDeSerie (a gravação do arquivo é feita em outra thread).
+     */
+    private static Cenario cenarioSerie()
+    {
+        Simulador simulador = new Simulador(TAMANHO_CAMPO, TAMANHO_CAMPO, false);
+        Campo campo = simulador.obterCampo();
+        GravadorDeSerie gravador;
+        try {
+            Path arquivo = Files.createTempFile("serie", ".csv");
+            arquivo.toFile().deleteOnExit();
+            gravador = new GravadorDeSerie(arquivo, GravadorDeSerie.Formato.CSV, 
+                                           Raposa.class, Coelho.class);
+        }
+        catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Cenario() {
+            public int preparar() {
+                Randomizador.definirSemente(SEMENTE);
+                simulador.reiniciar();
+                return 100000;
+            }
+
+            public void executar(int i) {
+                gravador.passoConcluido(i, campo, simulador.obterEstatisticas());
+            }
+        };
+    }
+
+    /**
+     * @return Quantos bytes a thread atual já alocou, ou 0 se a JVM não informar isso.
+     */
+    private static long bytesAlocados()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * @return Quantas coletas de lixo já foram feitas desde o início da JVM.
+     */
+    private static long contarColetas()
+    {
+        long total = 0;
+        for(GarbageCollectorMXBean coletor : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, coletor.getCollectionCount());
+        }
+        return total;
+    }
+}
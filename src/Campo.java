@@ -1,36 +1,128 @@
-import java.util.Collections;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Representa uma grade retangular de posições no campo.
  * Cada posição pode armazenar um único animal.
  * 
+ * As posições são armazenadas em arranjos lineares (linha a linha), indexados
+ * por linha * largura + coluna. Além do ocupante de cada posição, o campo
+ * guarda um código numérico de espécie, de forma que contagens e desenhos
+ * possam percorrer a grade sequencialmente sem consultar cada objeto.
+ * 
+ * O campo também registra quais posições foram alteradas (um bit por posição)
+ * desde a última chamada de transferirAlteracoes (ou limparAlteracoes), para
+ * que as visões possam redesenhar apenas essas posições.
+ * 
+ * Para cada espécie, o campo mantém ainda um mapa de bits da ocupação (um bit
+ * por posição, com cada linha começando em um novo long). Com ele, as
+ * posições vizinhas ocupadas por uma espécie são obtidas com alguns
+ * deslocamentos e operações lógicas (veja obterVizinhancaDaEspecie), sem
+ * consultar os ocupantes. Um mapa equivalente, de todas as posições ocupadas,
+ * permite sortear posições vizinhas livres sem criar listas e sem embaralhar
+ * todos os vizinhos (veja sortearVizinhosLivres).
+ * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
  * @version 2025.05.24
  */
 public class Campo
 {
-    // Um gerador de números aleatórios para fornecer localizações aleatórias.
-    private static final Random rand = Randomizador.obterRandom();
+    
+    // Código de espécie usado para posições vazias.
+    public static final short ESPECIE_VAZIA = 0;
+    // Número máximo de vizinhos de uma posição.
+    public static final int MAXIMO_VIZINHOS = 8;
+    // Deslocamento (linha, coluna) de cada direção de vizinho, na ordem dos
+    // bits das máscaras de vizinhança: as três posições da linha de cima, as
+    // duas laterais e as três da linha de baixo, da esquerda para a direita.
+    private static final int[] DESLOCAMENTO_LINHA = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] DESLOCAMENTO_COLUNA = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    // Acesso atômico às palavras dos mapas de ocupação, que o motor paralelo
+    // altera em threads diferentes.
+    private static final VarHandle PALAVRAS = MethodHandles.arrayElementVarHandle(long[].class);
+    // Direções que saem do campo na primeira e na última linha e na primeira
+    // e na última coluna.
+    private static final int FORA_ACIMA = 0b00000111;
+    private static final int FORA_ABAIXO = 0b11100000;
+    private static final int FORA_ESQUERDA = 0b00101001;
+    private static final int FORA_DIREITA = 0b10010100;
+    // Para cada máscara de 8 bits m e cada n, a posição do n-ésimo bit ligado
+    // de m (contando a partir de zero) fica em SELECAO[m * 8 + n].
+    private static final byte[] SELECAO = criarTabelaDeSelecao();
+    // Arranjos de trabalho (um por thread) usados pelas consultas de vizinhança.
+    private static final ThreadLocal<int[]> bufferVizinhos =
+        ThreadLocal.withInitial(() -> new int[MAXIMO_VIZINHOS]);
     
     // O comprimento e a largura do campo.
     private int comprimento, largura;
-    // Armazenamento para os animais.
-    private Object[][] campo;
+    // Armazenamento para os animais, linha a linha.
+    private Object[] ocupantes;
+    // Código da espécie de cada posição (ESPECIE_VAZIA se não houver ocupante).
+    private short[] especies;
+    // As classes registradas; a classe de código c fica na posição c - 1.
+    private volatile Class<?>[] classesEspecies;
+    // Uma única localização (imutável) para cada posição, compartilhada por
+    // todos que precisarem dela, para evitar a criação de objetos a cada passo.
+    private Localizacao[] localizacoes;
+    // Um bit por posição, ligado se a posição foi alterada desde a última
+    // chamada de transferirAlteracoes. É atômico porque o motor paralelo pode
+    // alterar posições vizinhas (no mesmo long) em threads diferentes.
+    private AtomicLongArray alteradas;
+    // O mapa de bits da ocupação de cada espécie, indexado pelo código da
+    // espécie (a posição ESPECIE_VAZIA não é usada). A posição (linha, coluna)
+    // é o bit coluna % 64 do long linha * palavrasPorLinha + coluna / 64.
+    private volatile long[][] ocupacao;
+    // O mapa de bits das posições ocupadas por qualquer espécie, no mesmo formato.
+    private long[] ocupadas;
+    // Quantos longs cada linha ocupa nos mapas de ocupação.
+    private int palavrasPorLinha;
+    // Os parâmetros da simulação que ocorre neste campo.
+    private Parametros parametros;
+    // Recebe os eventos dos animais do campo (null se não estiverem sendo registrados).
+    private RegistroDeEventos registroDeEventos;
+    // Animais mortos que podem ser reaproveitados (null se não forem reaproveitados).
+    private ReservatorioDeAnimais reservatorio;
 
     /**
-     * Representa um campo com as dimensões fornecidas.
+     * Representa um campo com as dimensões fornecidas e os parâmetros padrões.
      * @param comprimento O comprimento do campo.
      * @param largura A largura do campo.
      */
     public Campo(int comprimento, int largura)
     {
+        this(comprimento, largura, new Parametros());
+    }
+
+    /**
+     * Representa um campo com as dimensões e os parâmetros fornecidos.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @param parametros Os parâmetros dos animais que vivem no campo.
+     */
+    public Campo(int comprimento, int largura, Parametros parametros)
+    {
+        this.parametros = parametros;
         this.comprimento = comprimento;
         this.largura = largura;
-        campo = new Object[comprimento][largura];
+        ocupantes = new Object[comprimento * largura];
+        especies = new short[comprimento * largura];
+        classesEspecies = new Class<?>[0];
+        alteradas = new AtomicLongArray((comprimento * largura + 63) / 64);
+        palavrasPorLinha = (largura + 63) / 64;
+        ocupacao = new long[1][];
+        ocupadas = new long[comprimento * palavrasPorLinha];
+        localizacoes = new Localizacao[comprimento * largura];
+        for(int linha = 0; linha < comprimento; linha++) {
+            for(int coluna = 0; coluna < largura; coluna++) {
+                localizacoes[obterIndice(linha, coluna)] = new Localizacao(linha, coluna);
+            }
+        }
     }
     
     /**
@@ -38,10 +130,15 @@ public class Campo
      */
     public void limpar()
     {
-        for(int linha = 0; linha < comprimento; linha++) {
-            for(int coluna = 0; coluna < largura; coluna++) {
-                campo[linha][coluna] = null;
-            }
+        Arrays.fill(ocupantes, null);
+        Arrays.fill(especies, ESPECIE_VAZIA);
+        long[][] mapas = ocupacao;
+        for(int especie = 1; especie < mapas.length; especie++) {
+            Arrays.fill(mapas[especie], 0);
+        }
+        Arrays.fill(ocupadas, 0);
+        for(int i = 0; i < alteradas.length(); i++) {
+            alteradas.set(i, -1L);
         }
     }
     
@@ -51,7 +148,9 @@ public class Campo
      */
     public void limpar(Localizacao localizacao)
     {
-        campo[localizacao.obterLinha()][localizacao.obterColuna()] = null;
+        int indice = obterIndice(localizacao);
+        ocupantes[indice] = null;
+        alterarEspecie(indice, ESPECIE_VAZIA);
     }
     
     /**
@@ -63,7 +162,7 @@ public class Campo
      */
     public void colocar(Object animal, int linha, int coluna)
     {
-        colocar(animal, new Localizacao(linha, coluna));
+        colocar(animal, obterLocalizacao(linha, coluna));
     }
     
     /**
@@ -74,7 +173,130 @@ public class Campo
      */
     public void colocar(Object animal, Localizacao localizacao)
     {
-        campo[localizacao.obterLinha()][localizacao.obterColuna()] = animal;
+        int indice = obterIndice(localizacao);
+        ocupantes[indice] = animal;
+        alterarEspecie(indice, animal == null ? ESPECIE_VAZIA : obterCodigoEspecie(animal.getClass()));
+    }
+
+    /**
+     * Define o código da espécie de uma posição sem guardar nenhum objeto
+     * nela. Usado por motores que guardam o estado dos animais fora do campo
+     * (veja MotorDeArranjos); nesse caso, obterObjetoEm retorna null.
+     * @param indice O índice linear da posição (linha * largura + coluna).
+     * @param especie O código da espécie, ou ESPECIE_VAZIA para esvaziar a posição.
+     */
+    public void definirEspecieEm(int indice, short especie)
+    {
+        ocupantes[indice] = null;
+        alterarEspecie(indice, especie);
+    }
+
+    /**
+     * Altera o código da espécie de uma posição, atualizando os mapas de
+     * ocupação e marcando a posição como alterada.
+     */
+    private void alterarEspecie(int indice, short especie)
+    {
+        short anterior = especies[indice];
+        if(anterior != especie) {
+            long[][] mapas = ocupacao;
+            int linha = indice / largura;
+            int coluna = indice - linha * largura;
+            int palavra = linha * palavrasPorLinha + (coluna >>> 6);
+            long bit = 1L << coluna;
+            if(anterior != ESPECIE_VAZIA) {
+                PALAVRAS.getAndBitwiseAnd(mapas[anterior], palavra, ~bit);
+            }
+            else {
+                PALAVRAS.getAndBitwiseOr(ocupadas, palavra, bit);
+            }
+            if(especie != ESPECIE_VAZIA) {
+                PALAVRAS.getAndBitwiseOr(mapas[especie], palavra, bit);
+            }
+            else {
+                PALAVRAS.getAndBitwiseAnd(ocupadas, palavra, ~bit);
+            }
+            especies[indice] = especie;
+        }
+        marcarAlterada(indice);
+    }
+
+    /**
+     * Retorna o índice da primeira posição alterada a partir do índice
+     * fornecido (inclusive), no mesmo estilo de BitSet.nextSetBit.
+     * Depois de Campo.limpar(), todas as posições são consideradas alteradas.
+     * @param inicio O índice a partir do qual procurar.
+     * @return O índice da próxima posição alterada, ou -1 se não houver.
+     */
+    public int proximaPosicaoAlterada(int inicio)
+    {
+        int total = comprimento * largura;
+        if(inicio >= total) {
+            return -1;
+        }
+        int palavra = inicio >>> 6;
+        long bits = alteradas.get(palavra) & (-1L << inicio);
+        while(true) {
+            if(bits != 0) {
+                int indice = palavra * 64 + Long.numberOfTrailingZeros(bits);
+                return indice < total ? indice : -1;
+            }
+            palavra++;
+            if(palavra == alteradas.length()) {
+                return -1;
+            }
+            bits = alteradas.get(palavra);
+        }
+    }
+
+    /**
+     * Esquece as alterações registradas.
+     */
+    public void limparAlteracoes()
+    {
+        for(int i = 0; i < alteradas.length(); i++) {
+            if(alteradas.get(i) != 0) {
+                alteradas.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Retorna uma cópia dos bits de posições alteradas (um bit por posição,
+     * 64 por long) e esquece as alterações registradas. Deve ser chamado
+     * entre passos da simulação.
+     * @return Os bits das posições alteradas desde a última chamada.
+     */
+    public long[] transferirAlteracoes()
+    {
+        long[] copia = new long[alteradas.length()];
+        for(int i = 0; i < copia.length; i++) {
+            copia[i] = alteradas.get(i);
+            if(copia[i] != 0) {
+                alteradas.set(i, 0);
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * @return Uma cópia dos códigos de espécie de todas as posições, linha a linha.
+     */
+    public short[] copiarEspecies()
+    {
+        return especies.clone();
+    }
+
+    /**
+     * Registra que a posição de índice fornecido foi alterada.
+     */
+    private void marcarAlterada(int indice)
+    {
+        int palavra = indice >>> 6;
+        long bit = 1L << indice;
+        if((alteradas.get(palavra) & bit) == 0) {
+            alteradas.accumulateAndGet(palavra, bit, (atual, novo) -> atual | novo);
+        }
     }
     
     /**
@@ -95,9 +317,147 @@ public class Campo
      */
     public Object obterObjetoEm(int linha, int coluna)
     {
-        return campo[linha][coluna];
+        return ocupantes[obterIndice(linha, coluna)];
+    }
+    
+    /**
+     * Retorna o animal na posição de índice fornecido, se houver.
+     * @param indice O índice linear da posição (linha * largura + coluna).
+     * @return O animal na posição fornecida, ou null se não houver nenhum.
+     */
+    public Object obterObjetoEm(int indice)
+    {
+        return ocupantes[indice];
     }
     
+    /**
+     * Retorna o código da espécie na localização fornecida.
+     * @param linha A linha desejada.
+     * @param coluna A coluna desejada.
+     * @return O código da espécie, ou ESPECIE_VAZIA se não houver nenhum animal.
+     */
+    public short obterEspecieEm(int linha, int coluna)
+    {
+        return especies[obterIndice(linha, coluna)];
+    }
+    
+    /**
+     * Retorna o código da espécie na posição de índice fornecido.
+     * @param indice O índice linear da posição (linha * largura + coluna).
+     * @return O código da espécie, ou ESPECIE_VAZIA se não houver nenhum animal.
+     */
+    public short obterEspecieEm(int indice)
+    {
+        return especies[indice];
+    }
+    
+    /**
+     * Calcula o índice linear de uma posição do campo.
+     * @param linha A linha da posição.
+     * @param coluna A coluna da posição.
+     * @return O índice da posição (linha * largura + coluna).
+     */
+    public int obterIndice(int linha, int coluna)
+    {
+        return linha * largura + coluna;
+    }
+    
+    /**
+     * Retorna o código de espécie associado a uma classe, registrando
+     * a classe se ela ainda não tiver um código.
+     * @param classe A classe do animal.
+     * @return O código da espécie (sempre maior que ESPECIE_VAZIA).
+     */
+    public short obterCodigoEspecie(Class<?> classe)
+    {
+        Class<?>[] classes = classesEspecies;
+        for(int i = 0; i < classes.length; i++) {
+            if(classes[i] == classe) {
+                return (short) (i + 1);
+            }
+        }
+        return registrarEspecie(classe);
+    }
+
+    /**
+     * Registra uma nova espécie. O arranjo de classes é substituído por uma
+     * cópia ampliada, para que consultas feitas em paralelo por outras
+     * threads sempre vejam um arranjo consistente.
+     */
+    private synchronized short registrarEspecie(Class<?> classe)
+    {
+        Class<?>[] classes = classesEspecies;
+        for(int i = 0; i < classes.length; i++) {
+            if(classes[i] == classe) {
+                return (short) (i + 1);
+            }
+        }
+        Class<?>[] novas = Arrays.copyOf(classes, classes.length + 1);
+        novas[classes.length] = classe;
+        long[][] mapas = Arrays.copyOf(ocupacao, novas.length + 1);
+        mapas[novas.length] = new long[comprimento * palavrasPorLinha];
+        // O mapa é publicado antes da classe, para que quem obtiver o código
+        // já encontre o mapa correspondente.
+        ocupacao = mapas;
+        classesEspecies = novas;
+        return (short) novas.length;
+    }
+    
+    /**
+     * Retorna a classe associada a um código de espécie.
+     * @param codigo O código da espécie.
+     * @return A classe da espécie, ou null para ESPECIE_VAZIA.
+     */
+    public Class<?> obterClasseEspecie(short codigo)
+    {
+        if(codigo == ESPECIE_VAZIA) {
+            return null;
+        }
+        return classesEspecies[codigo - 1];
+    }
+    
+    /**
+     * @return As classes registradas; a classe de código c fica na posição c - 1.
+     */
+    public Class<?>[] obterClassesEspecies()
+    {
+        return classesEspecies.clone();
+    }
+    
+    /**
+     * @return Quantas espécies já foram registradas no campo.
+     */
+    public int obterNumeroEspecies()
+    {
+        return classesEspecies.length;
+    }
+    
+    /**
+     * Conta os animais de cada espécie percorrendo a grade sequencialmente.
+     * @return Um arranjo indexado pelo código da espécie com a contagem de cada uma
+     *         (a posição ESPECIE_VAZIA contém o número de posições vazias).
+     */
+    public int[] contarEspecies()
+    {
+        int[] contagens = new int[obterNumeroEspecies() + 1];
+        for(short especie : especies) {
+            contagens[especie]++;
+        }
+        return contagens;
+    }
+    
+    /**
+     * Fornece um arranjo de trabalho para consultas de vizinhança sem alocação
+     * (o mesmo usado internamente pelos métodos que retornam localizações).
+     * O arranjo é exclusivo da thread atual e é reutilizado a cada chamada,
+     * então não deve ser guardado nem usado durante outra chamada que o use.
+     * @return Um arranjo com pelo menos MAXIMO_VIZINHOS posições.
+     */
+    public static int[] obterBufferVizinhos()
+    {
+        return bufferVizinhos.get();
+    }
+
     /**
      * Gera uma localização aleatória que seja vizinha à
      * localização fornecida, ou a mesma localização.
@@ -108,8 +468,9 @@ public class Campo
      */
     public Localizacao localizacaoVizinhaAleatoria(Localizacao localizacao)
     {
-        List<Localizacao> vizinhos = localizacoesVizinhas(localizacao);
-        return vizinhos.get(0);
+        int[] vizinhos = bufferVizinhos.get();
+        obterVizinhos(obterIndice(localizacao), vizinhos);
+        return obterLocalizacao(vizinhos[0]);
     }
     
     /**
@@ -119,14 +480,9 @@ public class Campo
      */
     public List<Localizacao> localizacoesVizinhasLivres(Localizacao localizacao)
     {
-        List<Localizacao> livres = new LinkedList<>();
-        List<Localizacao> vizinhas = localizacoesVizinhas(localizacao);
-        for(Localizacao proxima : vizinhas) {
-            if(obterObjetoEm(proxima) == null) {
-                livres.add(proxima);
-            }
-        }
-        return livres;
+        int[] livres = bufferVizinhos.get();
+        int quantidade = obterVizinhosLivres(obterIndice(localizacao), livres);
+        return criarListaDeLocalizacoes(livres, quantidade);
     }
     
     /**
@@ -139,10 +495,11 @@ public class Campo
      */
     public Localizacao localizacaoVizinhaLivre(Localizacao localizacao)
     {
-        // As localizações livres disponíveis.
-        List<Localizacao> livres = localizacoesVizinhasLivres(localizacao);
-        if(livres.size() > 0) {
-            return livres.get(0);
+        // Sorteia uma das localizações livres disponíveis.
+        int[] livres = bufferVizinhos.get();
+        int quantidade = sortearVizinhosLivres(obterIndice(localizacao), 1, livres);
+        if(quantidade > 0) {
+            return obterLocalizacao(livres[0]);
         }
         else {
             return null;
@@ -159,31 +516,305 @@ public class Campo
     public List<Localizacao> localizacoesVizinhas(Localizacao localizacao)
     {
         assert localizacao != null : "Localização nula passada para localizacoesVizinhas";
-        // A lista de localizações a ser retornada.
-        List<Localizacao> localizacoes = new LinkedList<>();
-        if(localizacao != null) {
-            int linha = localizacao.obterLinha();
-            int coluna = localizacao.obterColuna();
-            for(int deslocLinha = -1; deslocLinha <= 1; deslocLinha++) {
-                int proxLinha = linha + deslocLinha;
-                if(proxLinha >= 0 && proxLinha < comprimento) {
-                    for(int deslocColuna = -1; deslocColuna <= 1; deslocColuna++) {
-                        int proxColuna = coluna + deslocColuna;
-                        // Excluir localizações inválidas e a localização original.
-                        if(proxColuna >= 0 && proxColuna < largura && (deslocLinha != 0 || deslocColuna != 0)) {
-                            localizacoes.add(new Localizacao(proxLinha, proxColuna));
-                        }
+        if(localizacao == null) {
+            return new LinkedList<>();
+        }
+        int[] vizinhos = bufferVizinhos.get();
+        int quantidade = obterVizinhos(obterIndice(localizacao), vizinhos);
+        return criarListaDeLocalizacoes(vizinhos, quantidade);
+    }
+
+    /**
+     * Escreve no arranjo fornecido os índices das posições vizinhas à
+     * posição de índice fornecido, em ordem aleatória. A própria posição
+     * não é incluída e todas as posições estarão dentro da grade.
+     * Nenhum objeto é criado: o chamador fornece o arranjo de destino,
+     * que deve ter pelo menos MAXIMO_VIZINHOS posições.
+     * @param indice O índice da posição a partir da qual gerar vizinhanças.
+     * @param destino Onde escrever os índices das posições vizinhas.
+     * @return Quantos vizinhos foram escritos em destino.
+     */
+    public int obterVizinhos(int indice, int[] destino)
+    {
+        int linha = indice / largura;
+        int coluna = indice % largura;
+        int quantidade = 0;
+        for(int deslocLinha = -1; deslocLinha <= 1; deslocLinha++) {
+            int proxLinha = linha + deslocLinha;
+            if(proxLinha >= 0 && proxLinha < comprimento) {
+                for(int deslocColuna = -1; deslocColuna <= 1; deslocColuna++) {
+                    int proxColuna = coluna + deslocColuna;
+                    // Excluir localizações inválidas e a localização original.
+                    if(proxColuna >= 0 && proxColuna < largura && (deslocLinha != 0 || deslocColuna != 0)) {
+                        destino[quantidade++] = proxLinha * largura + proxColuna;
                     }
                 }
             }
-            
-            // Embaralha a lista. Vários outros métodos dependem da lista
-            // estar em uma ordem aleatória.
-            Collections.shuffle(localizacoes, rand);
+        }
+
+        // Embaralha os vizinhos. Vários outros métodos dependem deles
+        // estarem em uma ordem aleatória. O algoritmo e o uso do gerador são
+        // os mesmos de Collections.shuffle, para manter a mesma sequência.
+        Random rand = Randomizador.obterRandomAtual();
+        for(int i = quantidade; i > 1; i--) {
+            int j = rand.nextInt(i);
+            int temp = destino[i - 1];
+            destino[i - 1] = destino[j];
+            destino[j] = temp;
+        }
+        return quantidade;
+    }
+
+    /**
+     * Retorna quais posições vizinhas à fornecida estão ocupadas pela espécie
+     * fornecida, como uma máscara de 8 bits: o bit d corresponde à direção d
+     * (veja obterIndiceVizinho). A máscara é montada a partir dos mapas de
+     * ocupação, com três bits de cada uma das linhas vizinhas.
+     * @param indice O índice da posição central.
+     * @param especie O código da espécie.
+     * @return A máscara das posições vizinhas ocupadas pela espécie.
+     */
+    public int obterVizinhancaDaEspecie(int indice, short especie)
+    {
+        int linha = indice / largura;
+        return obterVizinhanca(ocupacao[especie], linha, indice - linha * largura);
+    }
+
+    /**
+     * Monta a máscara de 8 bits das posições vizinhas marcadas em um mapa de bits.
+     */
+    private int obterVizinhanca(long[] mapa, int linha, int coluna)
+    {
+        int acima = linha > 0 ? obterTresBits(mapa, linha - 1, coluna) : 0;
+        int meio = obterTresBits(mapa, linha, coluna);
+        int abaixo = linha + 1 < comprimento ? obterTresBits(mapa, linha + 1, coluna) : 0;
+        // A posição central (bit 1 da linha do meio) não é vizinha.
+        return acima | (meio & 1) << 3 | (meio & 4) << 2 | abaixo << 5;
+    }
+
+    /**
+     * Retorna os bits das colunas coluna - 1, coluna e coluna + 1 de uma
+     * linha de um mapa de ocupação, nos bits 0, 1 e 2 do resultado. As
+     * colunas fora do campo são consideradas vazias.
+     */
+    private int obterTresBits(long[] mapa, int linha, int coluna)
+    {
+        int base = linha * palavrasPorLinha;
+        if(coluna == 0) {
+            return (int) ((long) PALAVRAS.getOpaque(mapa, base) << 1) & 6;
+        }
+        int inicio = coluna - 1;
+        int palavra = base + (inicio >>> 6);
+        int deslocamento = inicio & 63;
+        long bits = (long) PALAVRAS.getOpaque(mapa, palavra) >>> deslocamento;
+        if(deslocamento > 61 && (inicio >>> 6) + 1 < palavrasPorLinha) {
+            bits |= (long) PALAVRAS.getOpaque(mapa, palavra + 1) << (64 - deslocamento);
+        }
+        return (int) bits & 7;
+    }
+
+    /**
+     * Retorna o índice da posição vizinha na direção fornecida. A direção d
+     * corresponde ao bit d das máscaras de obterVizinhancaDaEspecie.
+     * @param indice O índice da posição central.
+     * @param direcao A direção, de 0 a 7.
+     * @return O índice da posição vizinha (que pode estar fora do campo, se a
+     *         direção não tiver sido obtida de uma máscara de vizinhança).
+     */
+    public int obterIndiceVizinho(int indice, int direcao)
+    {
+        return indice + DESLOCAMENTO_LINHA[direcao] * largura + DESLOCAMENTO_COLUNA[direcao];
+    }
+
+    /**
+     * Escreve no arranjo fornecido os índices das posições vizinhas livres
+     * à posição de índice fornecido, em ordem aleatória.
+     * @param indice O índice da posição a partir da qual gerar vizinhanças.
+     * @param destino Onde escrever os índices das posições livres; deve ter
+     *                pelo menos MAXIMO_VIZINHOS posições.
+     * @return Quantas posições livres foram escritas em destino.
+     */
+    public int obterVizinhosLivres(int indice, int[] destino)
+    {
+        return sortearVizinhosLivres(indice, MAXIMO_VIZINHOS, destino);
+    }
+
+    /**
+     * Sorteia posições vizinhas livres distintas, com o gerador aleatório da
+     * thread atual (veja sortearVizinhosLivres(int, int, Random, int[])).
+     * @param indice O índice da posição central.
+     * @param quantidade Quantas posições sortear, no máximo.
+     * @param destino Onde escrever os índices das posições sorteadas.
+     * @return Quantas posições foram escritas em destino.
+     */
+    public int sortearVizinhosLivres(int indice, int quantidade, int[] destino)
+    {
+        return sortearVizinhosLivres(indice, quantidade, Randomizador.obterRandomAtual(), destino);
+    }
+
+    /**
+     * Sorteia até quantidade posições vizinhas livres distintas, em ordem
+     * aleatória. As posições livres são obtidas do mapa de posições ocupadas
+     * como uma máscara de 8 bits; a cada sorteio, o bit escolhido é
+     * encontrado por uma tabela e desligado. São feitos no máximo quantidade
+     * sorteios, e nenhum quando só resta uma posição.
+     * @param indice O índice da posição central.
+     * @param quantidade Quantas posições sortear, no máximo.
+     * @param rand O gerador aleatório.
+     * @param destino Onde escrever os índices das posições sorteadas.
+     * @return Quantas posições foram escritas em destino (o menor valor entre
+     *         quantidade e o número de vizinhos livres).
+     */
+    public int sortearVizinhosLivres(int indice, int quantidade, Random rand, int[] destino)
+    {
+        int livres = obterVizinhancaLivre(indice);
+        int disponiveis = Integer.bitCount(livres);
+        int sorteadas = Math.min(quantidade, disponiveis);
+        for(int i = 0; i < sorteadas; i++) {
+            int restantes = disponiveis - i;
+            int n = restantes == 1 ? 0 : rand.nextInt(restantes);
+            int direcao = SELECAO[livres << 3 | n];
+            livres &= ~(1 << direcao);
+            destino[i] = obterIndiceVizinho(indice, direcao);
+        }
+        return sorteadas;
+    }
+
+    /**
+     * Retorna quais posições vizinhas à fornecida estão livres, como uma
+     * máscara de 8 bits (veja obterVizinhancaDaEspecie). Posições fora do
+     * campo não são consideradas livres.
+     * @param indice O índice da posição central.
+     * @return A máscara das posições vizinhas livres.
+     */
+    public int obterVizinhancaLivre(int indice)
+    {
+        int linha = indice / largura;
+        int coluna = indice - linha * largura;
+        int fora = 0;
+        if(linha == 0) {
+            fora |= FORA_ACIMA;
+        }
+        if(linha == comprimento - 1) {
+            fora |= FORA_ABAIXO;
+        }
+        if(coluna == 0) {
+            fora |= FORA_ESQUERDA;
+        }
+        if(coluna == largura - 1) {
+            fora |= FORA_DIREITA;
+        }
+        return ~(obterVizinhanca(ocupadas, linha, coluna) | fora) & 0xFF;
+    }
+
+    /**
+     * Cria a tabela SELECAO.
+     */
+    private static byte[] criarTabelaDeSelecao()
+    {
+        byte[] tabela = new byte[256 * 8];
+        for(int mascara = 0; mascara < 256; mascara++) {
+            int n = 0;
+            for(int bit = 0; bit < 8; bit++) {
+                if((mascara & (1 << bit)) != 0) {
+                    tabela[mascara * 8 + n++] = (byte) bit;
+                }
+            }
+        }
+        return tabela;
+    }
+
+    /**
+     * Retorna a localização correspondente a um índice linear.
+     * A localização retornada é sempre a mesma instância para cada posição.
+     * @param indice O índice da posição (linha * largura + coluna).
+     * @return A localização da posição.
+     */
+    public Localizacao obterLocalizacao(int indice)
+    {
+        return localizacoes[indice];
+    }
+
+    /**
+     * Retorna a localização de uma posição do campo.
+     * A localização retornada é sempre a mesma instância para cada posição.
+     * @param linha A linha da posição.
+     * @param coluna A coluna da posição.
+     * @return A localização da posição.
+     */
+    public Localizacao obterLocalizacao(int linha, int coluna)
+    {
+        return localizacoes[obterIndice(linha, coluna)];
+    }
+
+    /**
+     * Retorna o índice linear de uma localização.
+     * @param localizacao A localização.
+     * @return O índice da posição (linha * largura + coluna).
+     */
+    public int obterIndice(Localizacao localizacao)
+    {
+        return obterIndice(localizacao.obterLinha(), localizacao.obterColuna());
+    }
+
+    /**
+     * Cria uma lista de localizações a partir de índices de posições.
+     */
+    private List<Localizacao> criarListaDeLocalizacoes(int[] indices, int quantidade)
+    {
+        List<Localizacao> localizacoes = new LinkedList<>();
+        for(int i = 0; i < quantidade; i++) {
+            localizacoes.add(obterLocalizacao(indices[i]));
         }
         return localizacoes;
     }
 
+    /**
+     * @return O registro dos eventos dos animais do campo, ou null se os
+     *         eventos não estiverem sendo registrados.
+     */
+    public RegistroDeEventos obterRegistroDeEventos()
+    {
+        return registroDeEventos;
+    }
+
+    /**
+     * Define onde os animais do campo devem registrar seus eventos.
+     * Deve ser chamado entre passos.
+     * @param registro O registro, ou null para não registrar os eventos.
+     */
+    public void definirRegistroDeEventos(RegistroDeEventos registro)
+    {
+        registroDeEventos = registro;
+    }
+
+    /**
+     * @return O reservatório de animais mortos a serem reaproveitados pelas
+     *         espécies ao criar animais, ou null se não houver.
+     */
+    public ReservatorioDeAnimais obterReservatorio()
+    {
+        return reservatorio;
+    }
+
+    /**
+     * Define de onde as espécies retiram animais mortos para reaproveitar.
+     * Deve ser chamado entre passos.
+     * @param reservatorio O reservatório, ou null para sempre criar animais novos.
+     */
+    public void definirReservatorio(ReservatorioDeAnimais reservatorio)
+    {
+        this.reservatorio = reservatorio;
+    }
+
+    /**
+     * @return Os parâmetros dos animais que vivem neste campo.
+     */
+    public Parametros obterParametros()
+    {
+        return parametros;
+    }
+
     /**
      * Retorna o comprimento do campo.
      * @return O comprimento do campo.
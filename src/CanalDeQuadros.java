@@ -0,0 +1,86 @@
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.swing.Timer;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Liga o simulador a uma visão do Swing. O simulador publica quadros a partir
+ * da sua própria thread; o canal guarda apenas o mais recente e, a uma taxa
+ * máxima fixa, o entrega para ser exibido na thread de eventos do Swing.
+ * Quadros publicados antes que o anterior tenha sido exibido são descartados,
+ * de forma que a simulação nunca espera pela visão.
+ * 
+ * @version 2025.05.24
+ */
+public class CanalDeQuadros
+{
+    // O quadro mais recente ainda não exibido, ou null.
+    private final AtomicReference<Quadro> pendente;
+    // O que fazer com cada quadro, na thread de eventos do Swing.
+    private final Consumer<Quadro> exibicao;
+    // O nome da visão, usado nos eventos de exibição (veja EventoExibicaoDeQuadro).
+    private final String visao;
+    // Dispara a exibição periodicamente, na thread de eventos do Swing.
+    private final Timer temporizador;
+
+    /**
+     * Cria um canal e começa a exibir os quadros publicados.
+     * @param visao O nome da visão que exibe os quadros.
+     * @param quadrosPorSegundo A taxa máxima de exibição.
+     * @param exibicao Exibe um quadro; sempre chamado na thread de eventos do Swing.
+     */
+    public CanalDeQuadros(String visao, int quadrosPorSegundo, Consumer<Quadro> exibicao)
+    {
+        this.pendente = new AtomicReference<>();
+        this.exibicao = exibicao;
+        this.visao = visao;
+        temporizador = new Timer(1000 / quadrosPorSegundo, e -> exibirPendente());
+        temporizador.setCoalesce(true);
+        temporizador.start();
+    }
+
+    /**
+     * Publica um quadro, substituindo o anterior se ele ainda não foi exibido.
+     * Pode ser chamado de qualquer thread e retorna imediatamente.
+     * @param quadro O quadro a ser exibido.
+     */
+    public void publicar(Quadro quadro)
+    {
+        pendente.set(quadro);
+    }
+
+    /**
+     * @return true se não houver nenhum quadro esperando para ser exibido.
+     */
+    public boolean estaVazio()
+    {
+        return pendente.get() == null;
+    }
+
+    /**
+     * Exibe o quadro pendente, se houver.
+     */
+    private void exibirPendente()
+    {
+        Quadro quadro = pendente.getAndSet(null);
+        if(quadro != null) {
+            // Veja Simulador.iniciarEvento.
+            EventoExibicaoDeQuadro evento = null;
+            if(FlightRecorder.isInitialized()) {
+                evento = new EventoExibicaoDeQuadro();
+                evento.begin();
+            }
+            exibicao.accept(quadro);
+            if(evento != null) {
+                evento.end();
+                if(evento.shouldCommit()) {
+                    evento.visao = visao;
+                    evento.passo = quadro.obterPasso();
+                    evento.coelhos = quadro.obterPopulacao(Coelho.class);
+                    evento.raposas = quadro.obterPopulacao(Raposa.class);
+                    evento.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Os motivos pelos quais um animal pode morrer durante a simulação.
+ * 
+ * @version 2025.05.24
+ */
+public enum CausaDeMorte
+{
+    // Passou da idade máxima da espécie.
+    VELHICE,
+    // Uma raposa ficou sem comida.
+    FOME,
+    // Não havia posição vizinha livre para onde se mover.
+    SUPERLOTACAO,
+    // Um coelho foi comido por uma raposa.
+    ABATE
+}
@@ -10,16 +10,9 @@ import java.util.List;
  */
 public class Coelho extends Animal
 {
-    // Características compartilhadas por todos os coelhos (atributos estáticos, da classe).
-
-    // A idade em que um coelho pode começar a se reproduzir.
-    private static final int IDADE_REPRODUCAO = 5;
-    // A idade máxima que um coelho pode atingir.
-    private static final int IDADE_MAXIMA = 40;
-    // A probabilidade de um coelho se reproduzir.
-    private static final double PROBABILIDADE_REPRODUCAO = 0.12;
-    // O número máximo de filhotes que podem nascer de cada vez.
-    private static final int TAMANHO_MAXIMO_NINHADA = 4;
+    // As características compartilhadas por todos os coelhos (idade de
+    // reprodução, idade máxima etc.) vêm dos parâmetros da simulação
+    // (veja Parametros).
 
     /**
      * Cria um novo coelho. Um coelho pode ser criado com idade
@@ -34,9 +27,29 @@ public class Coelho extends Animal
         super(idadeAleatoria, campo, localizacao);
     }
 
+    /**
+     * Cria um coelho, reaproveitando um coelho morto do reservatório do
+     * campo se houver algum. O resultado é o mesmo do construtor.
+     * 
+     * @param idadeAleatoria Se verdadeiro, o coelho terá uma idade aleatória.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao A localização dentro do campo.
+     * @return O coelho.
+     */
+    public static Coelho criar(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
+    {
+        ReservatorioDeAnimais reservatorio = campo.obterReservatorio();
+        Animal morto = reservatorio == null ? null : reservatorio.retirar(Coelho.class);
+        if(morto == null) {
+            return new Coelho(idadeAleatoria, campo, localizacao);
+        }
+        morto.reinicializar(idadeAleatoria, campo, localizacao);
+        return (Coelho) morto;
+    }
+
     @Override
     protected int obterIdadeMaxima() {
-        return IDADE_MAXIMA;
+        return obterParametros().obterIdadeMaximaCoelho();
     }
 
     /**
@@ -57,25 +70,25 @@ public class Coelho extends Animal
             }
             else {
                 // Superlotação.
-                morrer();
+                morrer(CausaDeMorte.SUPERLOTACAO);
             }
         }
     }
 
     @Override
     protected Animal criarNovoFilhote(boolean idadeAleatoria, Campo campo, Localizacao localizacao) {
-        return new Coelho(false, obterCampo(), localizacao);
+        return criar(false, obterCampo(), localizacao);
     }
 
     protected int obterIdadeReproducao() {
-        return IDADE_REPRODUCAO;
+        return obterParametros().obterIdadeReproducaoCoelho();
     }
 
     protected double obterProbabilidadeReproducao() {
-        return PROBABILIDADE_REPRODUCAO;
+        return obterParametros().obterProbabilidadeReproducaoCoelho();
     }
 
     protected int obterTamanhoMaximoNinhada() {
-        return TAMANHO_MAXIMO_NINHADA;
+        return obterParametros().obterTamanhoMaximoNinhadaCoelho();
     }
 }
\ No newline at end of file
@@ -48,6 +48,15 @@ public class Contador
         contagem++;
     }
     
+    /**
+     * Incrementa a contagem atual na quantidade fornecida.
+     * @param quantidade Quanto deve ser somado à contagem.
+     */
+    public void incrementar(int quantidade)
+    {
+        contagem += quantidade;
+    }
+    
     /**
      * Redefine a contagem atual para zero.
      */
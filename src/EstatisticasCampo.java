@@ -1,10 +1,16 @@
 import java.util.HashMap;
+import jdk.jfr.FlightRecorder;
 
 /**
  * Esta classe coleta e fornece alguns dados estatísticos sobre o estado 
  * de um campo. É flexível: cria e mantém um contador para qualquer classe 
  * de objeto encontrada no campo.
  * 
+ * As contagens podem ser geradas varrendo o campo ou mantidas de forma
+ * incremental, com incrementarContagem e decrementarContagem a cada
+ * nascimento e morte (como faz o Simulador). Nesse caso, as consultas
+ * não precisam percorrer o campo.
+ * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
  * @version 2025.05.24
@@ -60,6 +66,10 @@ public class EstatisticasCampo
         }
 
         Contador contador = contadores.get(key);
+        if(contador == null) {
+            // Nenhum animal desta classe foi contado.
+            return 0;
+        }
         return contador.obterContagem();
     }
     
@@ -81,6 +91,16 @@ public class EstatisticasCampo
      * @param classeAnimal A classe do animal a ser incrementada.
      */
     public void incrementarContagem(Class<?> classeAnimal)
+    {
+        incrementarContagem(classeAnimal, 1);
+    }
+
+    /**
+     * Incrementa a contagem para uma classe de animal na quantidade fornecida.
+     * @param classeAnimal A classe do animal a ser incrementada.
+     * @param quantidade Quanto deve ser somado à contagem.
+     */
+    public void incrementarContagem(Class<?> classeAnimal, int quantidade)
     {
         Contador contador = contadores.get(classeAnimal);
         if(contador == null) {
@@ -89,7 +109,17 @@ public class EstatisticasCampo
             contador = new Contador(classeAnimal.getName());
             contadores.put(classeAnimal, contador);
         }
-        contador.incrementar();
+        contador.incrementar(quantidade);
+    }
+
+    /**
+     * Decrementa a contagem para uma classe de animal. Usado para manter as
+     * contagens atualizadas a cada morte, sem varrer o campo novamente.
+     * @param classeAnimal A classe do animal que morreu.
+     */
+    public void decrementarContagem(Class<?> classeAnimal)
+    {
+        incrementarContagem(classeAnimal, -1);
     }
 
     /**
@@ -130,15 +160,28 @@ public class EstatisticasCampo
      */
     private void gerarContagens(Campo campo)
     {
+        // Veja Simulador.iniciarEvento.
+        EventoCenso evento = null;
+        if(FlightRecorder.isInitialized()) {
+            evento = new EventoCenso();
+            evento.begin();
+        }
         reiniciar();
-        for(int linha = 0; linha < campo.obterComprimento(); linha++) {
-            for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                Object animal = campo.obterObjetoEm(linha, coluna);
-                if(animal != null) {
-                    incrementarContagem(animal.getClass());
-                }
+        int[] contagens = campo.contarEspecies();
+        for(short especie = 1; especie < contagens.length; especie++) {
+            if(contagens[especie] > 0) {
+                incrementarContagem(campo.obterClasseEspecie(especie), contagens[especie]);
             }
         }
         contagensValidas = true;
+        if(evento != null) {
+            evento.end();
+            if(evento.shouldCommit()) {
+                evento.posicoes = campo.obterComprimento() * campo.obterLargura();
+                evento.coelhos = obterContagemPopulacao(campo, Coelho.class);
+                evento.raposas = obterContagemPopulacao(campo, Raposa.class);
+                evento.commit();
+            }
+        }
     }
 }
\ No newline at end of file
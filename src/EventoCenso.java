@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder para uma contagem completa da população
+ * (veja EstatisticasCampo), que percorre todas as posições do campo. Como o
+ * simulador mantém as contagens de forma incremental, essas contagens só
+ * acontecem depois que as contagens são invalidadas. O evento não traz o
+ * passo, que as estatísticas não conhecem; na linha do tempo da thread da
+ * simulação, ele aparece dentro do EventoFaseDoPasso em que aconteceu.
+ *
+ * @version 2025.05.24
+ */
+@Name("simulacao.Censo")
+@Label("Censo")
+@Category("Simulação")
+@Description("Uma contagem completa da população, percorrendo o campo.")
+@StackTrace(false)
+public class EventoCenso extends jdk.jfr.Event
+{
+    @Label("Posições")
+    public int posicoes;
+
+    @Label("Coelhos")
+    public int coelhos;
+
+    @Label("Raposas")
+    public int raposas;
+}
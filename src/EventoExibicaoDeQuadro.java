@@ -0,0 +1,32 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder para a exibição de um quadro por uma visão,
+ * na thread de eventos do Swing (veja CanalDeQuadros). O mostrarStatus das
+ * visões apenas publica o quadro no canal; o desenho acontece aqui.
+ *
+ * @version 2025.05.24
+ */
+@Name("simulacao.ExibicaoDeQuadro")
+@Label("Exibição de quadro")
+@Category("Simulação")
+@Description("Uma visão desenhando o quadro de um passo.")
+@StackTrace(false)
+public class EventoExibicaoDeQuadro extends jdk.jfr.Event
+{
+    @Label("Visão")
+    public String visao;
+
+    @Label("Passo")
+    public int passo;
+
+    @Label("Coelhos")
+    public int coelhos;
+
+    @Label("Raposas")
+    public int raposas;
+}
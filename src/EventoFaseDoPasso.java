@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do Java Flight Recorder para uma fase de um passo da simulação (veja
+ * MetricasSimulacao.Fase). Com eles, o JDK Mission Control mostra quanto
+ * tempo cada fase leva ao longo de uma execução e com que população.
+ *
+ * Os campos só são preenchidos (e o evento só é gravado) se shouldCommit
+ * retornar verdadeiro. Enquanto o Flight Recorder não for iniciado, o
+ * simulador nem cria os eventos (veja Simulador.iniciarEvento).
+ *
+ * @version 2025.05.24
+ */
+@Name("simulacao.FaseDoPasso")
+@Label("Fase do passo")
+@Category("Simulação")
+@Description("A duração de uma fase de um passo da simulação.")
+@StackTrace(false)
+public class EventoFaseDoPasso extends jdk.jfr.Event
+{
+    @Label("Fase")
+    public String fase;
+
+    @Label("Passo")
+    public int passo;
+
+    @Label("Animais")
+    @Description("Quantos animais havia no início da fase, inclusive os filhotes e os mortos ainda não removidos.")
+    public int animais;
+
+    @Label("Coelhos")
+    @Description("A população de coelhos nas estatísticas ao fim da fase (na fase agir, ainda a do início do passo).")
+    public int coelhos;
+
+    @Label("Raposas")
+    @Description("A população de raposas nas estatísticas ao fim da fase (na fase agir, ainda a do início do passo).")
+    public int raposas;
+}
@@ -0,0 +1,250 @@
+import java.util.ArrayDeque;
+
+/**
+ * Executa a simulação em uma única thread dedicada, que é a única a alterar
+ * o modelo (o simulador, o campo e os animais). As visões não chamam o
+ * simulador diretamente: pedem ao executor que simule um certo número de
+ * passos ou que execute um comando (por exemplo, reiniciar a simulação).
+ *
+ * Os pedidos de pausar, continuar e cancelar, assim como os comandos, só têm
+ * efeito entre dois passos, então o modelo nunca fica pela metade. Eles
+ * também interrompem a espera entre passos, de forma que uma execução longa
+ * e lenta pode ser parada imediatamente.
+ *
+ * Todos os métodos públicos podem ser chamados de qualquer thread (em
+ * geral, a thread de eventos do Swing) e retornam imediatamente.
+ *
+ * @version 2025.05.24
+ */
+public class ExecutorDeSimulacao
+{
+    // O simulador controlado pelo executor.
+    private final Simulador simulador;
+    // A thread que executa os passos e os comandos.
+    private final Thread execucao;
+
+    // O estado a seguir é protegido pelo monitor do executor.
+    // Comandos a executar antes do próximo passo, na ordem em que foram pedidos.
+    private final ArrayDeque<Runnable> comandos;
+    // Quantos passos ainda faltam na execução atual.
+    private int passosRestantes;
+    // Quanto esperar depois de cada passo, em milissegundos.
+    private int atraso;
+    // Indica que há uma execução em andamento (mesmo que pausada).
+    private boolean executando;
+    // Indica que a execução atual está pausada.
+    private boolean pausado;
+    // Indica que a thread deve terminar.
+    private boolean encerrado;
+
+    /**
+     * Cria o executor e inicia sua thread, que espera por pedidos.
+     * @param simulador O simulador a ser controlado.
+     */
+    public ExecutorDeSimulacao(Simulador simulador)
+    {
+        this.simulador = simulador;
+        comandos = new ArrayDeque<>();
+        execucao = new Thread(this::processar, "executor-de-simulacao");
+        execucao.setDaemon(true);
+        execucao.start();
+    }
+
+    /**
+     * Inicia uma execução com o número fornecido de passos, que para antes
+     * se a simulação se tornar inviável. Se já houver uma execução em
+     * andamento, os passos que faltavam são substituídos por estes.
+     * Ao final, as visões mostram o estado final e reabilitam suas opções.
+     * @param passos O número de passos a executar.
+     * @param atraso Quanto esperar depois de cada passo, em milissegundos.
+     */
+    public synchronized void simular(int passos, int atraso)
+    {
+        passosRestantes = passos;
+        this.atraso = atraso;
+        executando = true;
+        pausado = false;
+        notifyAll();
+    }
+
+    /**
+     * Pausa a execução atual depois do passo em andamento.
+     */
+    public synchronized void pausar()
+    {
+        if(executando) {
+            pausado = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Continua a execução atual, se estiver pausada.
+     */
+    public synchronized void retomar()
+    {
+        pausado = false;
+        notifyAll();
+    }
+
+    /**
+     * Encerra a execução atual depois do passo em andamento (mesmo que
+     * esteja pausada), como se ela tivesse chegado ao fim.
+     */
+    public synchronized void cancelar()
+    {
+        passosRestantes = 0;
+        pausado = false;
+        notifyAll();
+    }
+
+    /**
+     * Pede que um comando seja executado na thread do executor, antes do
+     * próximo passo. Os comandos são executados na ordem em que foram pedidos.
+     * @param comando O que executar (por exemplo, reiniciar a simulação).
+     */
+    public synchronized void agendar(Runnable comando)
+    {
+        comandos.add(comando);
+        notifyAll();
+    }
+
+    /**
+     * @return true Se houver uma execução em andamento (mesmo que pausada).
+     */
+    public synchronized boolean estaExecutando()
+    {
+        return executando;
+    }
+
+    /**
+     * @return true Se a execução atual estiver pausada.
+     */
+    public synchronized boolean estaPausado()
+    {
+        return pausado;
+    }
+
+    /**
+     * Termina a thread do executor depois do passo ou do comando em
+     * andamento, descartando os passos e os comandos pendentes.
+     */
+    public void encerrar()
+    {
+        synchronized(this) {
+            encerrado = true;
+            notifyAll();
+        }
+        if(Thread.currentThread() == execucao) {
+            return;
+        }
+        boolean interrompida = false;
+        while(execucao.isAlive()) {
+            try {
+                execucao.join();
+            }
+            catch(InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if(interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * O laço da thread do executor: espera por um pedido e o atende, fora
+     * do monitor, para que os outros pedidos nunca esperem por um passo.
+     */
+    private void processar()
+    {
+        while(true) {
+            Runnable comando = null;
+            boolean concluir = false;
+            synchronized(this) {
+                while(!encerrado && comandos.isEmpty() && !(executando && (passosRestantes == 0 || !pausado))) {
+                    if(!aguardar(0)) {
+                        return;
+                    }
+                }
+                if(encerrado) {
+                    return;
+                }
+                if(executando && passosRestantes == 0) {
+                    // A execução chegou ao fim ou foi cancelada.
+                    executando = false;
+                    pausado = false;
+                    concluir = true;
+                }
+                else if(!comandos.isEmpty()) {
+                    comando = comandos.poll();
+                }
+                else {
+                    passosRestantes--;
+                }
+            }
+
+            try {
+                if(concluir) {
+                    simulador.concluirExecucao();
+                }
+                else if(comando != null) {
+                    comando.run();
+                }
+                else if(simulador.ehViavel()) {
+                    simulador.simularUmPasso();
+                    esperarDepoisDoPasso();
+                }
+                else {
+                    cancelar();
+                }
+            }
+            catch(RuntimeException e) {
+                // Um erro não deve matar a thread, senão as visões nunca mais
+                // seriam atendidas; a execução é encerrada e o erro, relatado.
+                cancelar();
+                execucao.getUncaughtExceptionHandler().uncaughtException(execucao, e);
+            }
+        }
+    }
+
+    /**
+     * Espera o atraso da execução atual, a menos que, enquanto isso, ela
+     * seja pausada, cancelada ou chegue ao fim, ou que um comando seja pedido.
+     */
+    private synchronized void esperarDepoisDoPasso()
+    {
+        long fim = System.nanoTime() + atraso * 1_000_000L;
+        long restante = fim - System.nanoTime();
+        while(restante > 0 && !encerrado && comandos.isEmpty() && passosRestantes > 0 && !pausado) {
+            if(!aguardar(restante)) {
+                return;
+            }
+            restante = fim - System.nanoTime();
+        }
+    }
+
+    /**
+     * Espera no monitor do executor por um novo pedido. Deve ser chamado
+     * com o monitor obtido. Se a thread for interrompida, o executor é
+     * encerrado.
+     * @param nanossegundos Quanto esperar no máximo (0 para esperar sem limite).
+     * @return false Se a thread foi interrompida.
+     */
+    private boolean aguardar(long nanossegundos)
+    {
+        try {
+            if(nanossegundos == 0) {
+                wait();
+            }
+            else {
+                wait(nanossegundos / 1_000_000, (int) (nanossegundos % 1_000_000));
+            }
+            return true;
+        }
+        catch(InterruptedException e) {
+            encerrado = true;
+            return false;
+        }
+    }
+}
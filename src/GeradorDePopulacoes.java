@@ -3,10 +3,11 @@ import java.util.Random;
 import java.awt.Color;
 
 public class GeradorDePopulacoes {
+    // As densidades padrões (veja Parametros).
     // A probabilidade de uma raposa ser criada em qualquer posição da grade.
-    private static final double PROBABILIDADE_CRIACAO_RAPOSA = 0.02;
+    public static final double PROBABILIDADE_CRIACAO_RAPOSA = 0.02;
     // A probabilidade de um coelho ser criado em qualquer posição.
-    private static final double PROBABILIDADE_CRIACAO_COELHO = 0.08; 
+    public static final double PROBABILIDADE_CRIACAO_COELHO = 0.08; 
 
     /**
      * Define as cores de cada espécie de animal nas visões do simulador
@@ -18,22 +19,36 @@ public class GeradorDePopulacoes {
     }   
 
     /**
-     * Povoa aleatoriamente o campo com animais.
+     * Povoa aleatoriamente o campo com animais, com as densidades dos
+     * parâmetros do campo.
      */
     public static void povoar(Campo campo, List<Animal> animais)
     {
-        Random rand = Randomizador.obterRandom();
+        Parametros parametros = campo.obterParametros();
+        povoar(campo, animais, parametros.obterProbabilidadeCriacaoRaposa(), 
+               parametros.obterProbabilidadeCriacaoCoelho());
+    }
+
+    /**
+     * Povoa aleatoriamente o campo com animais, com as densidades fornecidas.
+     * @param probabilidadeRaposa A probabilidade de uma raposa ser criada em cada posição.
+     * @param probabilidadeCoelho A probabilidade de um coelho ser criado em cada posição.
+     */
+    public static void povoar(Campo campo, List<Animal> animais, 
+                              double probabilidadeRaposa, double probabilidadeCoelho)
+    {
+        Random rand = Randomizador.obterRandomAtual();
         campo.limpar();
         for(int linha = 0; linha < campo.obterComprimento(); linha++) {
             for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                if(rand.nextDouble() <= PROBABILIDADE_CRIACAO_RAPOSA) {
-                    Localizacao localizacao = new Localizacao(linha, coluna);
-                    Raposa raposa = new Raposa(true, campo, localizacao);
+                if(rand.nextDouble() <= probabilidadeRaposa) {
+                    Localizacao localizacao = campo.obterLocalizacao(linha, coluna);
+                    Raposa raposa = Raposa.criar(true, campo, localizacao);
                     animais.add(raposa);
                 }
-                else if(rand.nextDouble() <= PROBABILIDADE_CRIACAO_COELHO) {
-                    Localizacao localizacao = new Localizacao(linha, coluna);
-                    Coelho coelho = new Coelho(true, campo, localizacao);
+                else if(rand.nextDouble() <= probabilidadeCoelho) {
+                    Localizacao localizacao = campo.obterLocalizacao(linha, coluna);
+                    Coelho coelho = Coelho.criar(true, campo, localizacao);
                     animais.add(coelho);
                 }
                 // caso contrário, deixa a localização vazia.
@@ -0,0 +1,84 @@
+import java.util.Random;
+
+/**
+ * Um gerador de números aleatórios baseado em contador. Em vez de manter um
+ * estado que é atualizado a cada sorteio (como java.util.Random), cada valor é
+ * obtido embaralhando uma chave e o número do sorteio. A chave é definida por
+ * posicionar, a partir da semente, do passo da simulação e de um identificador
+ * (por exemplo, a posição do animal no campo).
+ *
+ * Com isso, os valores sorteados para um animal em um passo dependem apenas
+ * dessa chave, e não da ordem em que os animais são processados nem de quantas
+ * threads são usadas. Cada thread deve ter sua própria instância, o que também
+ * elimina a disputa pela semente compartilhada de java.util.Random.
+ *
+ * A função de embaralhamento é a mesma usada por java.util.SplittableRandom.
+ *
+ * @version 2025.05.24
+ */
+public class GeradorPorContador extends Random
+{
+    // Versão da forma serializada (herdada de Random).
+    private static final long serialVersionUID = 1L;
+    // Incremento usado para espalhar as chaves e os contadores.
+    private static final long GAMA = 0x9E3779B97F4A7C15L;
+
+    // A chave atual, derivada da semente, do passo e do identificador.
+    private long chave;
+    // Quantos valores já foram sorteados com a chave atual.
+    private long contador;
+
+    /**
+     * Cria um gerador posicionado no início da sequência da semente fornecida.
+     * @param semente A semente.
+     */
+    public GeradorPorContador(long semente)
+    {
+        super(semente);
+    }
+
+    /**
+     * Posiciona o gerador no início da sequência identificada pelos valores
+     * fornecidos. Os valores sorteados a seguir dependem apenas deles.
+     * @param semente A semente da execução.
+     * @param passo O passo da simulação.
+     * @param identificador Identifica quem vai sortear (por exemplo, uma posição do campo).
+     */
+    public void posicionar(long semente, long passo, long identificador)
+    {
+        chave = misturar(misturar(misturar(semente) + passo * GAMA) + identificador * GAMA);
+        contador = 0;
+    }
+
+    /**
+     * Reinicia a sequência a partir de uma nova semente.
+     * @param semente A semente.
+     */
+    @Override
+    public void setSeed(long semente)
+    {
+        chave = misturar(semente);
+        contador = 0;
+    }
+
+    /**
+     * Gera o próximo valor da sequência. Todos os métodos de sorteio de
+     * Random (nextInt, nextDouble etc.) usam este método.
+     */
+    @Override
+    protected int next(int bits)
+    {
+        contador++;
+        return (int) (misturar(chave + contador * GAMA) >>> (64 - bits));
+    }
+
+    /**
+     * Embaralha os bits de um valor (função mix64 de SplittableRandom).
+     */
+    private static long misturar(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
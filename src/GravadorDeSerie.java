@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Grava a série temporal da população (o passo e a contagem de cada espécie)
+ * em um arquivo, em formato CSV ou binário de largura fixa.
+ *
+ * A thread da simulação apenas copia os números de cada passo para um anel
+ * de inteiros pré-alocado, sem criar objetos. Uma thread em segundo plano
+ * esvazia o anel, formata os registros diretamente em um buffer de bytes e
+ * os grava por um FileChannel. Se a gravação ficar muito atrasada e o anel
+ * encher, a simulação espera; nenhum passo é descartado.
+ *
+ * No formato binário, o arquivo começa com a identificação "SERI", a versão,
+ * o número de espécies e o nome de cada uma (tamanho em bytes, como short,
+ * seguido do nome em UTF-8). Depois vem um registro por passo: o passo e a
+ * contagem de cada espécie, todos como int big-endian.
+ *
+ * @version 2025.05.24
+ */
+public class GravadorDeSerie implements ObservadorDePassos
+{
+    /**
+     * Os formatos de arquivo suportados.
+     */
+    public enum Formato { CSV, BINARIO }
+
+    // Identifica os arquivos binários de séries ("SERI").
+    private static final int IDENTIFICACAO = 0x53455249;
+    // Versão do formato binário.
+    private static final int VERSAO = 1;
+    // Quantos passos cabem no anel.
+    private static final int CAPACIDADE_ANEL = 1 << 14;
+    // Tamanho do buffer usado nas gravações.
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    // Quanto tempo cada thread espera quando não pode prosseguir, em nanossegundos.
+    private static final long ESPERA = 1_000_000;
+    // Número máximo de caracteres de um int em decimal, incluindo o sinal.
+    private static final int DIGITOS_INT = 11;
+
+    // As espécies gravadas, na ordem das colunas.
+    private final Class<?>[] especies;
+    private final Formato formato;
+    // Quantos inteiros cada registro ocupa no anel (o passo e as contagens).
+    private final int larguraRegistro;
+    // Os registros ainda não gravados.
+    private final int[] anel;
+    // Quantos registros já foram produzidos pela simulação e quantos já
+    // foram consumidos pela gravação.
+    private volatile long produzidos, consumidos;
+    // Indica que não haverá mais registros.
+    private volatile boolean encerrado;
+    // O erro que interrompeu a gravação, se houver.
+    private volatile IOException falha;
+
+    private final FileChannel canal;
+    // Usados apenas pela thread de gravação.
+    private final ByteBuffer buffer;
+    private final byte[] digitos;
+    private final Thread gravacao;
+
+    /**
+     * Cria o arquivo e inicia a thread de gravação.
+     * @param caminho O arquivo a ser gravado (substituído, se existir).
+     * @param formato O formato do arquivo.
+     * @param especies As classes cujas contagens serão gravadas, na ordem das colunas.
+     * @throws IOException Se não for possível criar o arquivo.
+     */
+    public GravadorDeSerie(Path caminho, Formato formato, Class<?>... especies) throws IOException
+    {
+        this.especies = especies.clone();
+        this.formato = formato;
+        larguraRegistro = 1 + especies.length;
+        anel = new int[CAPACIDADE_ANEL * larguraRegistro];
+        buffer = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        digitos = new byte[DIGITOS_INT];
+        canal = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING);
+        escreverCabecalho();
+
+        gravacao = new Thread(this::gravar, "gravador-de-serie");
+        gravacao.setDaemon(true);
+        gravacao.start();
+    }
+
+    /**
+     * Copia as contagens do passo para o anel. Só espera se o anel estiver cheio.
+     */
+    @Override
+    public void passoConcluido(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        while(produzidos - consumidos >= CAPACIDADE_ANEL && falha == null) {
+            LockSupport.unpark(gravacao);
+            LockSupport.parkNanos(ESPERA);
+        }
+        if(falha != null) {
+            return;
+        }
+        int inicio = (int) (produzidos % CAPACIDADE_ANEL) * larguraRegistro;
+        anel[inicio] = passo;
+        for(int i = 0; i < especies.length; i++) {
+            anel[inicio + 1 + i] = estatisticas.obterContagemPopulacao(campo, especies[i]);
+        }
+        // A escrita volátil publica o registro para a thread de gravação.
+        produzidos = produzidos + 1;
+    }
+
+    /**
+     * Grava os registros pendentes, fecha o arquivo e termina a thread de gravação.
+     * @throws UncheckedIOException Se houve algum erro de gravação.
+     */
+    @Override
+    public void encerrar()
+    {
+        encerrado = true;
+        LockSupport.unpark(gravacao);
+        boolean interrompida = false;
+        while(gravacao.isAlive()) {
+            try {
+                gravacao.join();
+            }
+            catch(InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if(interrompida) {
+            Thread.currentThread().interrupt();
+        }
+        if(falha != null) {
+            throw new UncheckedIOException("Falha ao gravar a série.", falha);
+        }
+    }
+
+    /**
+     * Laço da thread de gravação.
+     */
+    private void gravar()
+    {
+        try {
+            while(true) {
+                // Lê encerrado antes de produzidos, para não perder os últimos registros.
+                boolean ultimaVolta = encerrado;
+                long disponiveis = produzidos;
+                long proximo = consumidos;
+                while(proximo < disponiveis) {
+                    if(buffer.remaining() < larguraRegistro * (DIGITOS_INT + 1)) {
+                        descarregar();
+                    }
+                    escreverRegistro((int) (proximo % CAPACIDADE_ANEL) * larguraRegistro);
+                    proximo++;
+                    consumidos = proximo;
+                }
+                descarregar();
+                if(ultimaVolta) {
+                    break;
+                }
+                LockSupport.parkNanos(ESPERA);
+            }
+        }
+        catch(IOException e) {
+            falha = e;
+        }
+        finally {
+            try {
+                canal.close();
+            }
+            catch(IOException e) {
+                if(falha == null) {
+                    falha = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Coloca no buffer o cabeçalho do arquivo.
+     */
+    private void escreverCabecalho()
+    {
+        if(formato == Formato.CSV) {
+            StringBuilder linha = new StringBuilder("passo");
+            for(Class<?> especie : especies) {
+                linha.append(',').append(especie.getSimpleName());
+            }
+            linha.append('\n');
+            buffer.put(linha.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        else {
+            buffer.putInt(IDENTIFICACAO);
+            buffer.putInt(VERSAO);
+            buffer.putInt(especies.length);
+            for(Class<?> especie : especies) {
+                byte[] nome = especie.getSimpleName().getBytes(StandardCharsets.UTF_8);
+                buffer.putShort((short) nome.length);
+                buffer.put(nome);
+            }
+        }
+    }
+
+    /**
+     * Coloca no buffer o registro que começa na posição fornecida do anel.
+     */
+    private void escreverRegistro(int inicio)
+    {
+        if(formato == Formato.CSV) {
+            for(int i = 0; i < larguraRegistro; i++) {
+                if(i > 0) {
+                    buffer.put((byte) ',');
+                }
+                escreverDecimal(anel[inicio + i]);
+            }
+            buffer.put((byte) '\n');
+        }
+        else {
+            for(int i = 0; i < larguraRegistro; i++) {
+                buffer.putInt(anel[inicio + i]);
+            }
+        }
+    }
+
+    /**
+     * Coloca no buffer os dígitos decimais de um número, sem criar strings.
+     */
+    private void escreverDecimal(int valor)
+    {
+        long resto = Math.abs((long) valor);
+        int posicao = digitos.length;
+        do {
+            digitos[--posicao] = (byte) ('0' + resto % 10);
+            resto /= 10;
+        } while(resto > 0);
+        if(valor < 0) {
+            digitos[--posicao] = (byte) '-';
+        }
+        buffer.put(digitos, posicao, digitos.length - posicao);
+    }
+
+    /**
+     * Grava no arquivo todo o conteúdo do buffer.
+     */
+    private void descarregar() throws IOException
+    {
+        buffer.flip();
+        while(buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Uma lista de animais guardada em um arranjo que só cresce, para ser
+ * reutilizada a cada passo da simulação sem criar novos objetos.
+ *
+ * Além das operações de uma lista, oferece truncar, que descarta de uma vez
+ * os últimos elementos. Com ela, os animais mortos podem ser removidos em
+ * uma única passada: os vivos são copiados para o início da lista (com set),
+ * na mesma ordem, e o restante é descartado. Isso é linear no tamanho da
+ * lista, enquanto remover cada morto individualmente (como faz
+ * Iterator.remove em um ArrayList) desloca todos os elementos seguintes.
+ *
+ * @version 2025.05.24
+ */
+public class ListaDeAnimais extends AbstractList<Animal> implements RandomAccess
+{
+    // Os animais da lista, nas posições de 0 a tamanho - 1.
+    private Animal[] animais;
+    // Quantos animais há na lista.
+    private int tamanho;
+
+    /**
+     * Cria uma lista vazia.
+     * @param capacidade Quantos animais a lista comporta antes de precisar crescer.
+     */
+    public ListaDeAnimais(int capacidade)
+    {
+        animais = new Animal[Math.max(1, capacidade)];
+        tamanho = 0;
+    }
+
+    @Override
+    public Animal get(int indice)
+    {
+        verificarIndice(indice);
+        return animais[indice];
+    }
+
+    @Override
+    public Animal set(int indice, Animal animal)
+    {
+        verificarIndice(indice);
+        Animal anterior = animais[indice];
+        animais[indice] = animal;
+        return anterior;
+    }
+
+    @Override
+    public boolean add(Animal animal)
+    {
+        if(tamanho == animais.length) {
+            animais = Arrays.copyOf(animais, animais.length * 2);
+        }
+        animais[tamanho++] = animal;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        return tamanho;
+    }
+
+    /**
+     * Esvazia a lista, mantendo o arranjo para ser reutilizado.
+     */
+    @Override
+    public void clear()
+    {
+        truncar(0);
+    }
+
+    /**
+     * Descarta os animais a partir da posição fornecida.
+     * @param novoTamanho Quantos animais manter (do início da lista).
+     */
+    public void truncar(int novoTamanho)
+    {
+        if(novoTamanho < 0 || novoTamanho > tamanho) {
+            throw new IndexOutOfBoundsException("Tamanho: " + novoTamanho + ", atual: " + tamanho);
+        }
+        // Solta as referências, para que os animais descartados possam ser coletados.
+        Arrays.fill(animais, novoTamanho, tamanho, null);
+        tamanho = novoTamanho;
+        modCount++;
+    }
+
+    /**
+     * Verifica se um índice corresponde a um animal da lista.
+     */
+    private void verificarIndice(int indice)
+    {
+        if(indice < 0 || indice >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice: " + indice + ", tamanho: " + tamanho);
+        }
+    }
+}
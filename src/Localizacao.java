@@ -1,5 +1,7 @@
 /**
  * Representa uma localização em uma grade retangular.
+ * Localizações são imutáveis; o Campo mantém uma única instância para cada
+ * uma de suas posições (veja Campo.obterLocalizacao).
  * 
  * @author David J. Barnes e Michael Kölling
  *  Traduzido por Julio César Alves
@@ -8,8 +10,8 @@
 public class Localizacao
 {
     // Posições de linha e coluna.
-    private int linha;
-    private int coluna;
+    private final int linha;
+    private final int coluna;
 
     /**
      * Representa uma linha e uma coluna.
@@ -27,6 +29,10 @@ public class Localizacao
      */
     public boolean equals(Object obj)
     {
+        if(obj == this) {
+            // Caso mais comum, já que o campo compartilha as localizações.
+            return true;
+        }
         if(obj instanceof Localizacao) {
             Localizacao outra = (Localizacao) obj;
             return linha == outra.obterLinha() && coluna == outra.obterColuna();
@@ -46,14 +52,15 @@ public class Localizacao
     }
     
     /**
-     * Usa os 16 bits superiores para o valor da linha e os inferiores para
-     * a coluna. Exceto para grades muito grandes, isso deve fornecer um
-     * código hash único para cada par (linha, coluna).
+     * Junta a linha e a coluna em um valor de 64 bits e o embaralha antes de
+     * reduzi-lo a 32 bits. Diferente de deslocar a linha de 16 bits, isso não
+     * gera colisões sistemáticas quando a grade tem mais de 65536 colunas.
      * @return Um código hash para a localização.
      */
     public int hashCode()
     {
-        return (linha << 16) + coluna;
+        long chave = (((long) linha << 32) | (coluna & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        return (int) (chave ^ (chave >>> 32));
     }
     
     /**
@@ -0,0 +1,540 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de uma simulação em andamento: a duração de cada fase dos passos
+ * (em histogramas), os nascimentos e as mortes por causa, a população atual
+ * de cada espécie e a taxa de passos por segundo.
+ *
+ * A simulação apenas soma números a contadores, uma vez por passo (veja
+ * Simulador); as durações são medidas com System.nanoTime. Nenhum texto é
+ * montado e nenhum objeto é criado enquanto ninguém lê as métricas. Elas
+ * podem ser lidas de duas formas, ambas fora da thread da simulação:
+ * registrando-as como um MXBean (veja registrarNoJmx), para consulta pelo
+ * JConsole ou pelo VisualVM, ou gravando-as periodicamente em um arquivo de
+ * texto no formato do Prometheus (veja iniciarArquivo), que pode ser lido
+ * pelo coletor de arquivos de texto do node_exporter.
+ *
+ * As métricas são um observador da simulação: a população e a taxa de passos
+ * são atualizadas ao fim de cada passo, e tudo é zerado quando uma nova
+ * execução começa.
+ *
+ * @version 2025.05.24
+ */
+public class MetricasSimulacao implements MetricasSimulacaoMXBean, ObservadorDePassos
+{
+    /**
+     * As fases de um passo cuja duração é medida.
+     */
+    public enum Fase
+    {
+        // Os animais agem.
+        AGIR("agir"),
+        // Os mortos são removidos, os filhotes entram na população e as contagens são atualizadas.
+        CENSO("censo"),
+        // O quadro do passo é capturado e entregue às visões.
+        DESENHO("desenho");
+
+        // O nome da fase, como aparece nas métricas e nos eventos.
+        private final String nome;
+
+        private Fase(String nome)
+        {
+            this.nome = nome;
+        }
+
+        /**
+         * @return O nome da fase, como aparece nas métricas e nos eventos.
+         */
+        public String obterNome()
+        {
+            return nome;
+        }
+    }
+
+    // Limite superior de cada faixa dos histogramas, em nanossegundos.
+    private static final long[] LIMITES = {
+        50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000,
+        25_000_000, 50_000_000, 100_000_000, 250_000_000, 1_000_000_000
+    };
+    // Peso de cada novo intervalo entre passos na média móvel.
+    private static final double PESO_MEDIA = 0.1;
+    // Numera as métricas registradas no JMX, para que cada uma tenha um nome único.
+    private static final AtomicInteger NUMERACAO = new AtomicInteger();
+
+    // Um histograma de durações para cada fase.
+    private final Histograma[] histogramas;
+    // Quantos animais nasceram e quantos morreram por cada causa.
+    private final AtomicLong nascimentos;
+    private final AtomicLongArray mortes;
+    // As espécies e sua população ao fim do último passo. A thread da
+    // simulação deixa versao ímpar enquanto as altera; quem as lê repete a
+    // leitura se versao era ímpar ou mudou, para nunca misturar contagens
+    // de passos diferentes.
+    private volatile String[] especies;
+    private volatile AtomicIntegerArray populacoes;
+    private volatile int versao;
+    private volatile int passo;
+    // Usados no cálculo da taxa de passos por segundo.
+    private volatile long instanteUltimoPasso;
+    private volatile double mediaIntervalo;
+
+    // O nome com que as métricas foram registradas no JMX, se foram.
+    private ObjectName nomeJmx;
+    // A gravação periódica do arquivo de texto, se houver.
+    private ScheduledExecutorService gravacao;
+    private Path arquivo;
+    // O erro da última tentativa de gravar o arquivo, se houver.
+    private volatile IOException falha;
+
+    /**
+     * Cria métricas zeradas.
+     */
+    public MetricasSimulacao()
+    {
+        histogramas = new Histograma[Fase.values().length];
+        for(int i = 0; i < histogramas.length; i++) {
+            histogramas[i] = new Histograma();
+        }
+        nascimentos = new AtomicLong();
+        mortes = new AtomicLongArray(CausaDeMorte.values().length);
+        especies = new String[0];
+        populacoes = new AtomicIntegerArray(0);
+    }
+
+    /**
+     * Registra a duração de uma fase do passo atual.
+     * @param fase A fase.
+     * @param nanossegundos Quanto tempo a fase levou.
+     */
+    public void registrarDuracao(Fase fase, long nanossegundos)
+    {
+        histogramas[fase.ordinal()].registrar(nanossegundos);
+    }
+
+    /**
+     * Soma os nascimentos do passo atual.
+     * @param quantidade Quantos animais nasceram.
+     */
+    public void registrarNascimentos(int quantidade)
+    {
+        if(quantidade != 0) {
+            nascimentos.addAndGet(quantidade);
+        }
+    }
+
+    /**
+     * Soma as mortes do passo atual por uma causa.
+     * @param causa A causa das mortes.
+     * @param quantidade Quantos animais morreram por essa causa.
+     */
+    public void registrarMortes(CausaDeMorte causa, int quantidade)
+    {
+        if(quantidade != 0) {
+            mortes.addAndGet(causa.ordinal(), quantidade);
+        }
+    }
+
+    /**
+     * Copia a população de cada espécie e atualiza a taxa de passos.
+     */
+    @Override
+    public void passoConcluido(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        // Só esta thread altera versao, então o incremento não precisa ser atômico.
+        versao = versao + 1;
+        if(campo.obterNumeroEspecies() != populacoes.length()) {
+            // Uma nova espécie apareceu (só acontece no início de uma execução).
+            Class<?>[] classes = campo.obterClassesEspecies();
+            String[] nomes = new String[classes.length];
+            for(int i = 0; i < classes.length; i++) {
+                nomes[i] = classes[i].getSimpleName();
+            }
+            especies = nomes;
+            populacoes = new AtomicIntegerArray(classes.length);
+        }
+        AtomicIntegerArray contagens = populacoes;
+        for(short codigo = 1; codigo <= contagens.length(); codigo++) {
+            contagens.set(codigo - 1,
+                          estatisticas.obterContagemPopulacao(campo, campo.obterClasseEspecie(codigo)));
+        }
+        versao = versao + 1;
+
+        long agora = System.nanoTime();
+        long anterior = instanteUltimoPasso;
+        if(anterior != 0) {
+            double intervalo = agora - anterior;
+            double media = mediaIntervalo;
+            mediaIntervalo = media == 0 ? intervalo : media + PESO_MEDIA * (intervalo - media);
+        }
+        instanteUltimoPasso = agora;
+        this.passo = passo;
+    }
+
+    /**
+     * Zera as métricas para a nova execução.
+     */
+    @Override
+    public void execucaoIniciada(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        for(Histograma histograma : histogramas) {
+            histograma.zerar();
+        }
+        nascimentos.set(0);
+        for(int i = 0; i < mortes.length(); i++) {
+            mortes.set(i, 0);
+        }
+        instanteUltimoPasso = 0;
+        mediaIntervalo = 0;
+        passoConcluido(passo, campo, estatisticas);
+    }
+
+    /**
+     * Registra as métricas no servidor de MBeans da plataforma, com um nome
+     * único, para que possam ser consultadas por JMX.
+     * @return O nome com que as métricas foram registradas.
+     * @throws IllegalStateException Se não for possível registrar as métricas.
+     */
+    public synchronized ObjectName registrarNoJmx()
+    {
+        if(nomeJmx == null) {
+            try {
+                ObjectName nome = new ObjectName("Simulador:type=MetricasSimulacao,name=simulacao-"
+                                                 + NUMERACAO.incrementAndGet());
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, nome);
+                nomeJmx = nome;
+            }
+            catch(JMException e) {
+                throw new IllegalStateException("Não foi possível registrar as métricas no JMX.", e);
+            }
+        }
+        return nomeJmx;
+    }
+
+    /**
+     * Passa a gravar as métricas, no formato de texto do Prometheus, no
+     * arquivo fornecido, periodicamente, em uma thread em segundo plano. O
+     * arquivo é substituído de uma vez a cada gravação, para que quem o lê
+     * nunca encontre um arquivo pela metade.
+     * @param caminho O arquivo a ser gravado.
+     * @param intervaloMilissegundos De quanto em quanto tempo gravar o arquivo.
+     */
+    public synchronized void iniciarArquivo(Path caminho, long intervaloMilissegundos)
+    {
+        pararArquivo();
+        arquivo = caminho;
+        gravacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "gravador-de-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        gravacao.scheduleWithFixedDelay(this::gravarArquivo, 0, intervaloMilissegundos,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Para a gravação periódica (gravando o arquivo uma última vez) e retira
+     * as métricas do JMX.
+     * @throws UncheckedIOException Se a última gravação do arquivo falhou.
+     */
+    @Override
+    public synchronized void encerrar()
+    {
+        pararArquivo();
+        if(nomeJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nomeJmx);
+            }
+            catch(JMException e) {
+                // As métricas já não estão registradas.
+            }
+            nomeJmx = null;
+        }
+        if(falha != null) {
+            throw new UncheckedIOException("Falha ao gravar as métricas.", falha);
+        }
+    }
+
+    /**
+     * Para a gravação periódica, se houver, e grava o arquivo uma última vez.
+     */
+    private void pararArquivo()
+    {
+        if(gravacao == null) {
+            return;
+        }
+        gravacao.shutdown();
+        boolean interrompida = false;
+        try {
+            gravacao.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch(InterruptedException e) {
+            interrompida = true;
+        }
+        gravarArquivo();
+        gravacao = null;
+        if(interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grava o arquivo de texto, substituindo o anterior.
+     */
+    private void gravarArquivo()
+    {
+        try {
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+            Files.write(temporario, getTextoPrometheus().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            falha = null;
+        }
+        catch(IOException e) {
+            falha = e;
+        }
+    }
+
+    @Override
+    public int getPasso()
+    {
+        return passo;
+    }
+
+    @Override
+    public double getPassosPorSegundo()
+    {
+        double media = mediaIntervalo;
+        if(media == 0) {
+            return 0;
+        }
+        // Se a simulação parou, a taxa cai conforme o tempo passa.
+        return 1e9 / Math.max(media, System.nanoTime() - instanteUltimoPasso);
+    }
+
+    @Override
+    public long getNascimentos()
+    {
+        return nascimentos.get();
+    }
+
+    @Override
+    public long getMortesPorFome()
+    {
+        return mortes.get(CausaDeMorte.FOME.ordinal());
+    }
+
+    @Override
+    public long getMortesPorVelhice()
+    {
+        return mortes.get(CausaDeMorte.VELHICE.ordinal());
+    }
+
+    @Override
+    public long getMortesPorSuperlotacao()
+    {
+        return mortes.get(CausaDeMorte.SUPERLOTACAO.ordinal());
+    }
+
+    @Override
+    public long getAbates()
+    {
+        return mortes.get(CausaDeMorte.ABATE.ordinal());
+    }
+
+    @Override
+    public Map<String, Integer> getPopulacao()
+    {
+        while(true) {
+            int antes = versao;
+            String[] nomes = especies;
+            AtomicIntegerArray contagens = populacoes;
+            Map<String, Integer> populacao = new LinkedHashMap<>();
+            for(int i = 0; i < nomes.length && i < contagens.length(); i++) {
+                populacao.put(nomes[i], contagens.get(i));
+            }
+            if((antes & 1) == 0 && versao == antes) {
+                return populacao;
+            }
+            // A simulação estava alterando as contagens; lê de novo.
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public Map<String, Double> getDuracaoMediaPorFase()
+    {
+        Map<String, Double> medias = new LinkedHashMap<>();
+        for(Fase fase : Fase.values()) {
+            medias.put(fase.obterNome(), histogramas[fase.ordinal()].obterMedia() / 1e6);
+        }
+        return medias;
+    }
+
+    @Override
+    public Map<String, long[]> getHistogramaPorFase()
+    {
+        Map<String, long[]> faixas = new LinkedHashMap<>();
+        for(Fase fase : Fase.values()) {
+            faixas.put(fase.obterNome(), histogramas[fase.ordinal()].obterFaixas());
+        }
+        return faixas;
+    }
+
+    @Override
+    public double[] getLimitesHistograma()
+    {
+        double[] limites = new double[LIMITES.length];
+        for(int i = 0; i < limites.length; i++) {
+            limites[i] = LIMITES[i] / 1e6;
+        }
+        return limites;
+    }
+
+    @Override
+    public String getTextoPrometheus()
+    {
+        StringBuilder texto = new StringBuilder();
+        cabecalho(texto, "simulacao_passo", "gauge", "O último passo concluído.");
+        texto.append("simulacao_passo ").append(getPasso()).append('\n');
+        cabecalho(texto, "simulacao_passos_por_segundo", "gauge", "A taxa atual de passos por segundo.");
+        texto.append("simulacao_passos_por_segundo ").append(getPassosPorSegundo()).append('\n');
+
+        cabecalho(texto, "simulacao_nascimentos_total", "counter", "Animais nascidos na execução.");
+        texto.append("simulacao_nascimentos_total ").append(getNascimentos()).append('\n');
+        cabecalho(texto, "simulacao_mortes_total", "counter", "Animais mortos na execução, por causa.");
+        for(CausaDeMorte causa : CausaDeMorte.values()) {
+            if(causa != CausaDeMorte.ABATE) {
+                texto.append("simulacao_mortes_total{causa=\"")
+                     .append(causa.name().toLowerCase(Locale.ROOT)).append("\"} ")
+                     .append(mortes.get(causa.ordinal())).append('\n');
+            }
+        }
+        cabecalho(texto, "simulacao_abates_total", "counter", "Coelhos comidos por raposas na execução.");
+        texto.append("simulacao_abates_total ").append(getAbates()).append('\n');
+
+        cabecalho(texto, "simulacao_populacao", "gauge", "A população atual de cada espécie.");
+        for(Map.Entry<String, Integer> especie : getPopulacao().entrySet()) {
+            texto.append("simulacao_populacao{especie=\"").append(especie.getKey()).append("\"} ")
+                 .append(especie.getValue()).append('\n');
+        }
+
+        cabecalho(texto, "simulacao_duracao_fase_segundos", "histogram", "A duração de cada fase dos passos.");
+        for(Fase fase : Fase.values()) {
+            String rotulo = "fase=\"" + fase.obterNome() + "\"";
+            Histograma histograma = histogramas[fase.ordinal()];
+            long[] faixas = histograma.obterFaixas();
+            long acumulado = 0;
+            for(int i = 0; i < faixas.length; i++) {
+                acumulado += faixas[i];
+                String limite = i < LIMITES.length ? Double.toString(LIMITES[i] / 1e9) : "+Inf";
+                texto.append("simulacao_duracao_fase_segundos_bucket{").append(rotulo)
+                     .append(",le=\"").append(limite).append("\"} ").append(acumulado).append('\n');
+            }
+            texto.append("simulacao_duracao_fase_segundos_sum{").append(rotulo).append("} ")
+                 .append(histograma.obterSoma() / 1e9).append('\n');
+            texto.append("simulacao_duracao_fase_segundos_count{").append(rotulo).append("} ")
+                 .append(acumulado).append('\n');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Acrescenta as linhas HELP e TYPE de uma métrica.
+     */
+    private static void cabecalho(StringBuilder texto, String nome, String tipo, String descricao)
+    {
+        texto.append("# HELP ").append(nome).append(' ').append(descricao).append('\n');
+        texto.append("# TYPE ").append(nome).append(' ').append(tipo).append('\n');
+    }
+
+    /**
+     * Um histograma de durações com faixas fixas (veja LIMITES).
+     */
+    private static class Histograma
+    {
+        // Quantas durações caíram em cada faixa; a última não tem limite.
+        private final AtomicLongArray faixas;
+        // A soma de todas as durações, em nanossegundos.
+        private final AtomicLong soma;
+
+        public Histograma()
+        {
+            faixas = new AtomicLongArray(LIMITES.length + 1);
+            soma = new AtomicLong();
+        }
+
+        /**
+         * Conta uma duração.
+         */
+        public void registrar(long nanossegundos)
+        {
+            int faixa = 0;
+            while(faixa < LIMITES.length && nanossegundos > LIMITES[faixa]) {
+                faixa++;
+            }
+            faixas.incrementAndGet(faixa);
+            soma.addAndGet(nanossegundos);
+        }
+
+        /**
+         * @return Uma cópia das contagens de cada faixa.
+         */
+        public long[] obterFaixas()
+        {
+            long[] copia = new long[faixas.length()];
+            for(int i = 0; i < copia.length; i++) {
+                copia[i] = faixas.get(i);
+            }
+            return copia;
+        }
+
+        /**
+         * @return A soma das durações, em nanossegundos.
+         */
+        public long obterSoma()
+        {
+            return soma.get();
+        }
+
+        /**
+         * @return A duração média, em nanossegundos (zero se não houver nenhuma).
+         */
+        public double obterMedia()
+        {
+            long quantidade = 0;
+            for(int i = 0; i < faixas.length(); i++) {
+                quantidade += faixas.get(i);
+            }
+            return quantidade == 0 ? 0 : (double) soma.get() / quantidade;
+        }
+
+        /**
+         * Zera o histograma.
+         */
+        public void zerar()
+        {
+            for(int i = 0; i < faixas.length(); i++) {
+                faixas.set(i, 0);
+            }
+            soma.set(0);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.util.Map;
+
+/**
+ * A interface de gerenciamento (JMX) das métricas de uma simulação. Os nomes
+ * dos métodos seguem a convenção get... exigida pelo JMX para que cada um
+ * apareça como um atributo (por exemplo, no JConsole ou no VisualVM).
+ *
+ * @version 2025.05.24
+ */
+public interface MetricasSimulacaoMXBean
+{
+    /**
+     * @return O último passo concluído.
+     */
+    public int getPasso();
+
+    /**
+     * @return A taxa atual de passos por segundo (uma média móvel).
+     */
+    public double getPassosPorSegundo();
+
+    /**
+     * @return Quantos animais nasceram desde o início da execução.
+     */
+    public long getNascimentos();
+
+    /**
+     * @return Quantas raposas morreram de fome desde o início da execução.
+     */
+    public long getMortesPorFome();
+
+    /**
+     * @return Quantos animais morreram de velhice desde o início da execução.
+     */
+    public long getMortesPorVelhice();
+
+    /**
+     * @return Quantos animais morreram por superlotação desde o início da execução.
+     */
+    public long getMortesPorSuperlotacao();
+
+    /**
+     * @return Quantos coelhos foram comidos desde o início da execução.
+     */
+    public long getAbates();
+
+    /**
+     * @return A população atual de cada espécie, pelo nome da espécie.
+     */
+    public Map<String, Integer> getPopulacao();
+
+    /**
+     * @return A duração média de cada fase do passo, em milissegundos, pelo nome da fase.
+     */
+    public Map<String, Double> getDuracaoMediaPorFase();
+
+    /**
+     * @return Para cada fase, quantas durações caíram em cada faixa do
+     *         histograma (veja getLimitesHistograma; a última faixa não tem limite).
+     */
+    public Map<String, long[]> getHistogramaPorFase();
+
+    /**
+     * @return O limite superior de cada faixa dos histogramas, em milissegundos.
+     */
+    public double[] getLimitesHistograma();
+
+    /**
+     * @return Todas as métricas no formato de texto do Prometheus.
+     */
+    public String getTextoPrometheus();
+}
@@ -0,0 +1,424 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Executa os passos da simulação com o estado de todos os animais guardado
+ * em arranjos paralelos de tipos primitivos (posição, idade, nível de comida,
+ * espécie e se está vivo), em vez de um objeto por animal. O comportamento
+ * das espécies é executado por laços sobre esses arranjos, sem chamadas
+ * virtuais e sem seguir referências de um objeto para outro.
+ *
+ * Cada animal ocupa 14 bytes (três int e dois byte); além disso, o motor
+ * guarda para cada posição do campo o número do animal que a ocupa. O campo
+ * continua guardando o código da espécie de cada posição (que é o que as
+ * visões, as contagens e o registro de eventos usam), mas não os objetos.
+ *
+ * O motor reproduz exatamente a execução sequencial com objetos: os animais
+ * agem na mesma ordem, sorteiam os mesmos valores (com um GeradorPorContador
+ * posicionado da mesma forma) e os filhotes entram no final da lista. Para
+ * uma mesma semente, o resultado é o mesmo da execução sequencial.
+ *
+ * Os objetos Animal são criados apenas quando necessários (veja exportar),
+ * por exemplo ao voltar a outro motor ou ao gravar o estado da simulação.
+ *
+ * @version 2025.05.24
+ */
+public class MotorDeArranjos
+{
+    // O campo da simulação.
+    private final Campo campo;
+    private final int comprimento, largura;
+    // Os códigos das espécies no campo.
+    private final short codigoRaposa, codigoCoelho;
+    // O estado de cada animal, nas posições de 0 a quantidade - 1, na ordem em que agem.
+    private int[] posicoes;
+    private int[] idades;
+    private int[] niveisComida;
+    private byte[] especies;
+    private boolean[] vivos;
+    // Quantos animais há nos arranjos (inclusive os mortos ainda não removidos).
+    private int quantidade;
+    // O número do animal em cada posição do campo (-1 se estiver vazia).
+    private final int[] animalEm;
+    // Quanto a população de cada espécie (indexada pelo código) mudou no passo.
+    private final int[] variacoes;
+    // O gerador aleatório, posicionado antes de cada animal agir.
+    private final GeradorPorContador gerador;
+    // Arranjo de trabalho para as consultas de vizinhança.
+    private final int[] vizinhos;
+    // Quantos animais nasceram e quantos morreram por cada causa no passo.
+    private int nascimentosNoPasso;
+    private final int[] mortesNoPasso;
+    // Quantos animais havia no início do passo atual.
+    private int existentes;
+
+    /**
+     * Cria um motor, inicialmente sem nenhum animal, para o campo fornecido.
+     * @param campo O campo da simulação.
+     */
+    public MotorDeArranjos(Campo campo)
+    {
+        this.campo = campo;
+        comprimento = campo.obterComprimento();
+        largura = campo.obterLargura();
+        codigoRaposa = campo.obterCodigoEspecie(Raposa.class);
+        codigoCoelho = campo.obterCodigoEspecie(Coelho.class);
+        if(codigoRaposa > Byte.MAX_VALUE || codigoCoelho > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Espécies demais registradas no campo.");
+        }
+
+        int capacidade = comprimento * largura;
+        posicoes = new int[capacidade];
+        idades = new int[capacidade];
+        niveisComida = new int[capacidade];
+        especies = new byte[capacidade];
+        vivos = new boolean[capacidade];
+        animalEm = new int[capacidade];
+        Arrays.fill(animalEm, -1);
+        variacoes = new int[Math.max(codigoRaposa, codigoCoelho) + 1];
+        gerador = new GeradorPorContador(0);
+        vizinhos = new int[Campo.MAXIMO_VIZINHOS];
+        mortesNoPasso = new int[CausaDeMorte.values().length];
+    }
+
+    /**
+     * Passa a guardar nos arranjos os animais vivos da lista fornecida (na
+     * mesma ordem), descartando os que o motor tinha. Os objetos são retirados
+     * do campo, que mantém apenas o código da espécie de cada posição, e
+     * devolvidos ao reservatório. A lista é esvaziada.
+     * @param animais Os animais da simulação.
+     * @param reservatorio Para onde devolver os objetos, ou null.
+     */
+    public void importar(List<Animal> animais, ReservatorioDeAnimais reservatorio)
+    {
+        Arrays.fill(animalEm, -1);
+        quantidade = 0;
+        for(int i = 0; i < animais.size(); i++) {
+            Animal animal = animais.get(i);
+            if(!animal.estaVivo()) {
+                continue;
+            }
+            int posicao = campo.obterIndice(animal.obterLocalizacao());
+            if(animal instanceof Raposa) {
+                acrescentar(codigoRaposa, posicao, animal.obterIdade(), ((Raposa) animal).obterNivelComida());
+            }
+            else if(animal instanceof Coelho) {
+                acrescentar(codigoCoelho, posicao, animal.obterIdade(), 0);
+            }
+            else {
+                throw new IllegalArgumentException("Espécie não suportada: " + animal.getClass());
+            }
+            animal.descartar();
+            campo.definirEspecieEm(posicao, especies[quantidade - 1]);
+            if(reservatorio != null) {
+                reservatorio.devolver(animal);
+            }
+        }
+        animais.clear();
+    }
+
+    /**
+     * Cria um objeto Animal para cada animal vivo dos arranjos, na mesma
+     * ordem, colocando-o no campo e na lista fornecida. Os arranjos não são
+     * alterados; se a simulação continuar com este motor, os objetos devem
+     * ser devolvidos com importar.
+     * @param animais Uma lista vazia para receber os animais.
+     */
+    public void exportar(List<Animal> animais)
+    {
+        // A criação dos objetos não é um evento da simulação.
+        RegistroDeEventos registro = campo.obterRegistroDeEventos();
+        campo.definirRegistroDeEventos(null);
+        try {
+            for(int i = 0; i < quantidade; i++) {
+                if(!vivos[i]) {
+                    continue;
+                }
+                Localizacao localizacao = campo.obterLocalizacao(posicoes[i]);
+                Animal animal;
+                if(especies[i] == codigoRaposa) {
+                    Raposa raposa = Raposa.criar(false, campo, localizacao);
+                    raposa.definirNivelComida(niveisComida[i]);
+                    animal = raposa;
+                }
+                else {
+                    animal = Coelho.criar(false, campo, localizacao);
+                }
+                animal.definirIdade(idades[i]);
+                animais.add(animal);
+            }
+        }
+        finally {
+            campo.definirRegistroDeEventos(registro);
+        }
+    }
+
+    /**
+     * Executa um passo: todos os animais vivos agem uma vez, os mortos são
+     * removidos e os filhotes que sobreviveram passam a fazer parte da
+     * população. As contagens das estatísticas são atualizadas.
+     * @param semente A semente da execução.
+     * @param passo O número do passo sendo executado.
+     * @param estatisticas As estatísticas da população.
+     */
+    public void simularPasso(long semente, int passo, EstatisticasCampo estatisticas)
+    {
+        agir(semente, passo);
+        atualizarPopulacao(estatisticas);
+    }
+
+    /**
+     * Faz com que todos os animais vivos ajam uma vez. Os mortos e os
+     * filhotes só deixam e entram na população em atualizarPopulacao, que
+     * deve ser chamado em seguida.
+     * @param semente A semente da execução.
+     * @param passo O número do passo sendo executado.
+     */
+    public void agir(long semente, int passo)
+    {
+        Parametros parametros = campo.obterParametros();
+        RegistroDeEventos registro = campo.obterRegistroDeEventos();
+        existentes = quantidade;
+        nascimentosNoPasso = 0;
+        Arrays.fill(mortesNoPasso, 0);
+        for(int i = 0; i < existentes; i++) {
+            // O animal pode ter sido comido por uma raposa que agiu antes.
+            if(!vivos[i]) {
+                continue;
+            }
+            gerador.posicionar(semente, passo, posicoes[i]);
+            if(especies[i] == codigoRaposa) {
+                agirRaposa(i, parametros, registro);
+            }
+            else {
+                agirCoelho(i, parametros, registro);
+            }
+        }
+    }
+
+    /**
+     * Remove os animais que morreram no passo e inclui os filhotes que
+     * sobreviveram, atualizando as contagens das estatísticas.
+     * @param estatisticas As estatísticas da população.
+     */
+    public void atualizarPopulacao(EstatisticasCampo estatisticas)
+    {
+        removerMortos(existentes, estatisticas);
+        existentes = quantidade;
+    }
+
+    /**
+     * @return Quantos animais nasceram no último passo.
+     */
+    public int obterNascimentosNoPasso()
+    {
+        return nascimentosNoPasso;
+    }
+
+    /**
+     * @param causa Uma causa de morte.
+     * @return Quantos animais morreram por essa causa no último passo.
+     */
+    public int obterMortesNoPasso(CausaDeMorte causa)
+    {
+        return mortesNoPasso[causa.ordinal()];
+    }
+
+    /**
+     * @return Quantos animais vivos há nos arranjos, fora de um passo.
+     */
+    public int obterQuantidade()
+    {
+        return quantidade;
+    }
+
+    /**
+     * O comportamento de um coelho (veja Coelho.agir).
+     */
+    private void agirCoelho(int animal, Parametros parametros, RegistroDeEventos registro)
+    {
+        int idade = ++idades[animal];
+        if(idade > parametros.obterIdadeMaximaCoelho()) {
+            morrer(animal, CausaDeMorte.VELHICE, registro);
+            return;
+        }
+        reproduzir(animal, idade, parametros.obterIdadeReproducaoCoelho(),
+                   parametros.obterProbabilidadeReproducaoCoelho(),
+                   parametros.obterTamanhoMaximoNinhadaCoelho(), 0, registro);
+        int destino = campo.sortearVizinhosLivres(posicoes[animal], 1, gerador, vizinhos) > 0
+                      ? vizinhos[0] : -1;
+        moverOuMorrer(animal, destino, registro);
+    }
+
+    /**
+     * O comportamento de uma raposa (veja Raposa.agir).
+     */
+    private void agirRaposa(int animal, Parametros parametros, RegistroDeEventos registro)
+    {
+        int idade = ++idades[animal];
+        if(idade > parametros.obterIdadeMaximaRaposa()) {
+            morrer(animal, CausaDeMorte.VELHICE, registro);
+            return;
+        }
+        int nivelComida = --niveisComida[animal];
+        if(nivelComida <= 0) {
+            morrer(animal, CausaDeMorte.FOME, registro);
+            return;
+        }
+        int valorComida = parametros.obterValorComidaCoelho();
+        reproduzir(animal, idade, parametros.obterIdadeReproducaoRaposa(),
+                   parametros.obterProbabilidadeReproducaoRaposa(),
+                   parametros.obterTamanhoMaximoNinhadaRaposa(), valorComida, registro);
+
+        // Come todos os coelhos vizinhos e vai para a posição de um deles, sorteado.
+        int posicao = posicoes[animal];
+        int nivelMaximo = parametros.obterNivelComidaMaximo();
+        int destino = -1;
+        int presas = campo.obterVizinhancaDaEspecie(posicao, codigoCoelho);
+        if(presas != 0) {
+            int quantidadePresas = Integer.bitCount(presas);
+            int sorteada = quantidadePresas == 1 ? 0 : gerador.nextInt(quantidadePresas);
+            for(int n = 0; presas != 0; n++, presas &= presas - 1) {
+                int onde = campo.obterIndiceVizinho(posicao, Integer.numberOfTrailingZeros(presas));
+                if(registro != null) {
+                    registro.registrarAbate(onde, posicao);
+                }
+                morrer(animalEm[onde], CausaDeMorte.ABATE, registro);
+                nivelComida = Math.min(nivelComida + valorComida, nivelMaximo);
+                if(n == sorteada) {
+                    destino = onde;
+                }
+            }
+        }
+        niveisComida[animal] = nivelComida;
+        if(destino < 0 && campo.sortearVizinhosLivres(posicao, 1, gerador, vizinhos) > 0) {
+            destino = vizinhos[0];
+        }
+        moverOuMorrer(animal, destino, registro);
+    }
+
+    /**
+     * Sorteia os filhotes do animal e os coloca em posições vizinhas livres
+     * (veja Animal.reproduzir).
+     */
+    private void reproduzir(int animal, int idade, int idadeReproducao, double probabilidade,
+                            int tamanhoMaximoNinhada, int nivelComida, RegistroDeEventos registro)
+    {
+        if(idade < idadeReproducao || gerador.nextDouble() > probabilidade) {
+            return;
+        }
+        int nascimentos = gerador.nextInt(tamanhoMaximoNinhada) + 1;
+        int livres = campo.sortearVizinhosLivres(posicoes[animal], nascimentos, gerador, vizinhos);
+        nascimentosNoPasso += livres;
+        for(int n = 0; n < livres; n++) {
+            acrescentar(especies[animal], vizinhos[n], 0, nivelComida);
+            campo.definirEspecieEm(vizinhos[n], especies[animal]);
+            if(registro != null) {
+                registro.registrarNascimento(especies[animal], vizinhos[n]);
+            }
+        }
+    }
+
+    /**
+     * Move o animal para o destino ou, se não houver destino, o mata por superlotação.
+     */
+    private void moverOuMorrer(int animal, int destino, RegistroDeEventos registro)
+    {
+        if(destino < 0) {
+            morrer(animal, CausaDeMorte.SUPERLOTACAO, registro);
+            return;
+        }
+        int origem = posicoes[animal];
+        animalEm[origem] = -1;
+        campo.definirEspecieEm(origem, Campo.ESPECIE_VAZIA);
+        colocar(animal, destino);
+        if(registro != null) {
+            registro.registrarMovimento(especies[animal], origem, destino);
+        }
+    }
+
+    /**
+     * Marca o animal como morto e libera sua posição.
+     */
+    private void morrer(int animal, CausaDeMorte causa, RegistroDeEventos registro)
+    {
+        mortesNoPasso[causa.ordinal()]++;
+        int posicao = posicoes[animal];
+        vivos[animal] = false;
+        animalEm[posicao] = -1;
+        campo.definirEspecieEm(posicao, Campo.ESPECIE_VAZIA);
+        if(registro != null) {
+            registro.registrarMorte(posicao);
+        }
+    }
+
+    /**
+     * Coloca o animal na posição fornecida do campo.
+     */
+    private void colocar(int animal, int posicao)
+    {
+        posicoes[animal] = posicao;
+        animalEm[posicao] = animal;
+        campo.definirEspecieEm(posicao, especies[animal]);
+    }
+
+    /**
+     * Acrescenta um animal vivo ao final dos arranjos, aumentando-os se preciso.
+     */
+    private void acrescentar(short especie, int posicao, int idade, int nivelComida)
+    {
+        if(quantidade == posicoes.length) {
+            int capacidade = posicoes.length * 2;
+            posicoes = Arrays.copyOf(posicoes, capacidade);
+            idades = Arrays.copyOf(idades, capacidade);
+            niveisComida = Arrays.copyOf(niveisComida, capacidade);
+            especies = Arrays.copyOf(especies, capacidade);
+            vivos = Arrays.copyOf(vivos, capacidade);
+        }
+        posicoes[quantidade] = posicao;
+        idades[quantidade] = idade;
+        niveisComida[quantidade] = nivelComida;
+        especies[quantidade] = (byte) especie;
+        vivos[quantidade] = true;
+        animalEm[posicao] = quantidade;
+        quantidade++;
+    }
+
+    /**
+     * Remove os animais mortos em uma única passada, copiando os vivos para
+     * o início dos arranjos na mesma ordem (como faz o Simulador com a lista
+     * de animais), e atualiza as contagens das estatísticas.
+     * @param existentes Quantos animais havia no início do passo; os
+     *                   seguintes são os filhotes nascidos no passo.
+     */
+    private void removerMortos(int existentes, EstatisticasCampo estatisticas)
+    {
+        Arrays.fill(variacoes, 0);
+        int mantidos = 0;
+        for(int i = 0; i < quantidade; i++) {
+            if(vivos[i]) {
+                if(i >= existentes) {
+                    variacoes[especies[i]]++;
+                }
+                if(mantidos != i) {
+                    posicoes[mantidos] = posicoes[i];
+                    idades[mantidos] = idades[i];
+                    niveisComida[mantidos] = niveisComida[i];
+                    especies[mantidos] = especies[i];
+                    vivos[mantidos] = true;
+                    animalEm[posicoes[mantidos]] = mantidos;
+                }
+                mantidos++;
+            }
+            else if(i < existentes) {
+                variacoes[especies[i]]--;
+            }
+        }
+        quantidade = mantidos;
+        for(short especie = 1; especie < variacoes.length; especie++) {
+            if(variacoes[especie] != 0) {
+                estatisticas.incrementarContagem(campo.obterClasseEspecie(especie), variacoes[especie]);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Executa os passos da simulação em paralelo, dividindo o campo em blocos
+ * retangulares que são processados por um ForkJoinPool.
+ *
+ * Cada animal só lê e altera posições a até uma casa de distância da sua
+ * (ao se mover, comer ou ter filhotes). Por isso os blocos são coloridos
+ * como um tabuleiro de xadrez com quatro cores, conforme a paridade da
+ * linha e da coluna do bloco, e cada passo é feito em quatro fases: em cada
+ * fase apenas os blocos de uma cor são processados, em paralelo. Dois blocos
+ * da mesma cor estão sempre separados por um bloco inteiro (de pelo menos
+ * duas posições), então nunca disputam as mesmas posições do campo.
+ *
+ * Cada bloco usa seu próprio GeradorPorContador, posicionado antes de cada
+ * animal agir a partir da semente da execução, do passo e da posição do animal.
+ * Os valores sorteados não dependem, portanto, de qual thread processa o bloco
+ * nem da ordem dos blocos, e não há estado aleatório compartilhado entre threads.
+ * Para uma mesma semente e um mesmo tamanho de bloco, o resultado é sempre o
+ * mesmo, independentemente do número de threads.
+ *
+ * Pelo mesmo motivo, os eventos de cada bloco são guardados no lote do
+ * registro de eventos numerado conforme a ordem em que os blocos são
+ * processados (cor por cor), e o registro é o mesmo da execução com uma
+ * única thread.
+ *
+ * @version 2025.05.24
+ */
+public class MotorParalelo
+{
+    // Tamanho mínimo (em posições) de cada lado de um bloco.
+    private static final int TAMANHO_MINIMO_BLOCO = 2;
+    // Número de cores do tabuleiro de blocos.
+    private static final int NUMERO_CORES = 4;
+
+    // O campo processado por este motor.
+    private Campo campo;
+    // As dimensões de cada bloco.
+    private int alturaBloco, larguraBloco;
+    // Quantos blocos há em cada coluna e em cada linha do campo.
+    private int blocosVerticais, blocosHorizontais;
+    // Os animais de cada bloco, conforme sua localização no início do passo.
+    private List<List<Animal>> animaisPorBloco;
+    // Os filhotes nascidos durante o passo, por bloco.
+    private List<List<Animal>> nascidosPorBloco;
+    // O gerador aleatório de cada bloco.
+    private GeradorPorContador[] geradores;
+    // A semente da execução e o passo em andamento.
+    private long semente;
+    private int passo;
+    // Os números dos blocos de cada cor.
+    private int[][] blocosPorCor;
+    // O número do lote de eventos de cada bloco (veja RegistroDeEventos.vincularLote).
+    private int[] loteDoBloco;
+    // O registro de eventos do passo em andamento (ou null).
+    private RegistroDeEventos registro;
+    // O pool de threads que processa os blocos.
+    private ForkJoinPool pool;
+
+    /**
+     * Cria um motor paralelo para o campo fornecido.
+     * @param campo O campo da simulação.
+     * @param threads Quantas threads usar.
+     * @param alturaBloco Quantas linhas do campo cada bloco tem (pelo menos 2).
+     * @param larguraBloco Quantas colunas do campo cada bloco tem (pelo menos 2).
+     */
+    public MotorParalelo(Campo campo, int threads, int alturaBloco, int larguraBloco)
+    {
+        if(alturaBloco < TAMANHO_MINIMO_BLOCO || larguraBloco < TAMANHO_MINIMO_BLOCO) {
+            throw new IllegalArgumentException("Os blocos devem ter pelo menos "
+                                               + TAMANHO_MINIMO_BLOCO + " posições de lado.");
+        }
+        this.campo = campo;
+        this.alturaBloco = alturaBloco;
+        this.larguraBloco = larguraBloco;
+        blocosVerticais = (campo.obterComprimento() + alturaBloco - 1) / alturaBloco;
+        blocosHorizontais = (campo.obterLargura() + larguraBloco - 1) / larguraBloco;
+
+        int numeroBlocos = blocosVerticais * blocosHorizontais;
+        animaisPorBloco = new ArrayList<>(numeroBlocos);
+        nascidosPorBloco = new ArrayList<>(numeroBlocos);
+        geradores = new GeradorPorContador[numeroBlocos];
+        for(int bloco = 0; bloco < numeroBlocos; bloco++) {
+            animaisPorBloco.add(new ArrayList<>());
+            nascidosPorBloco.add(new ArrayList<>());
+            geradores[bloco] = new GeradorPorContador(0);
+        }
+        agruparBlocosPorCor();
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Faz com que todos os animais vivos da lista fornecida ajam uma vez.
+     * Os filhotes nascidos no passo são acrescentados a novosAnimais, na
+     * ordem dos blocos. A lista de animais não é alterada: os que morrerem
+     * continuam nela, para que o simulador os remova.
+     * @param animais Os animais da simulação.
+     * @param novosAnimais Uma lista para receber os animais recém-nascidos.
+     * @param semente A semente da execução.
+     * @param passo O número do passo sendo executado.
+     */
+    public void agir(List<Animal> animais, List<Animal> novosAnimais, long semente, int passo)
+    {
+        this.semente = semente;
+        this.passo = passo;
+        registro = campo.obterRegistroDeEventos();
+        if(registro != null) {
+            registro.prepararLotes(loteDoBloco.length);
+        }
+        distribuirNosBlocos(animais);
+
+        for(int cor = 0; cor < NUMERO_CORES; cor++) {
+            int[] blocos = blocosPorCor[cor];
+            if(blocos.length > 0) {
+                pool.invoke(new TarefaDeBlocos(blocos, 0, blocos.length));
+            }
+        }
+
+        for(List<Animal> nascidos : nascidosPorBloco) {
+            novosAnimais.addAll(nascidos);
+        }
+    }
+
+    /**
+     * Encerra as threads usadas por este motor.
+     */
+    public void encerrar()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Coloca cada animal vivo na lista do bloco em que ele está,
+     * preservando a ordem relativa da lista de animais.
+     */
+    private void distribuirNosBlocos(List<Animal> animais)
+    {
+        for(int bloco = 0; bloco < animaisPorBloco.size(); bloco++) {
+            animaisPorBloco.get(bloco).clear();
+            nascidosPorBloco.get(bloco).clear();
+        }
+        for(Animal animal : animais) {
+            if(animal.estaVivo()) {
+                Localizacao localizacao = animal.obterLocalizacao();
+                int bloco = (localizacao.obterLinha() / alturaBloco) * blocosHorizontais
+                            + localizacao.obterColuna() / larguraBloco;
+                animaisPorBloco.get(bloco).add(animal);
+            }
+        }
+    }
+
+    /**
+     * Separa os blocos conforme a paridade de sua linha e de sua coluna.
+     */
+    private void agruparBlocosPorCor()
+    {
+        List<List<Integer>> porCor = new ArrayList<>();
+        for(int cor = 0; cor < NUMERO_CORES; cor++) {
+            porCor.add(new ArrayList<>());
+        }
+        for(int linhaBloco = 0; linhaBloco < blocosVerticais; linhaBloco++) {
+            for(int colunaBloco = 0; colunaBloco < blocosHorizontais; colunaBloco++) {
+                int cor = (linhaBloco % 2) * 2 + colunaBloco % 2;
+                porCor.get(cor).add(linhaBloco * blocosHorizontais + colunaBloco);
+            }
+        }
+        blocosPorCor = new int[NUMERO_CORES][];
+        loteDoBloco = new int[blocosVerticais * blocosHorizontais];
+        int lote = 0;
+        for(int cor = 0; cor < NUMERO_CORES; cor++) {
+            List<Integer> blocos = porCor.get(cor);
+            blocosPorCor[cor] = new int[blocos.size()];
+            for(int i = 0; i < blocos.size(); i++) {
+                blocosPorCor[cor][i] = blocos.get(i);
+                loteDoBloco[blocos.get(i)] = lote++;
+            }
+        }
+    }
+
+    /**
+     * Faz com que os animais de um bloco ajam, usando o gerador aleatório e
+     * o lote de eventos do bloco. Os campos semente, passo e registro são
+     * escritos antes de as tarefas serem submetidas ao pool, que garante sua
+     * visibilidade para as threads.
+     */
+    private void processarBloco(int bloco)
+    {
+        List<Animal> nascidos = nascidosPorBloco.get(bloco);
+        GeradorPorContador gerador = geradores[bloco];
+        Randomizador.vincular(gerador);
+        if(registro != null) {
+            registro.vincularLote(loteDoBloco[bloco]);
+        }
+        try {
+            for(Animal animal : animaisPorBloco.get(bloco)) {
+                // O animal pode ter sido comido por uma raposa de outro bloco.
+                if(animal.estaVivo()) {
+                    gerador.posicionar(semente, passo, campo.obterIndice(animal.obterLocalizacao()));
+                    animal.agir(nascidos);
+                }
+            }
+        }
+        finally {
+            Randomizador.desvincular();
+            if(registro != null) {
+                registro.desvincularLote();
+            }
+        }
+    }
+
+    /**
+     * Tarefa que processa um intervalo de blocos da mesma cor, dividindo-o
+     * recursivamente entre as threads do pool.
+     */
+    private class TarefaDeBlocos extends RecursiveAction
+    {
+        // As tarefas nunca são serializadas; declarado por ser um RecursiveAction.
+        private static final long serialVersionUID = 1L;
+
+        private int[] blocos;
+        private int inicio, fim;
+
+        public TarefaDeBlocos(int[] blocos, int inicio, int fim)
+        {
+            this.blocos = blocos;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(fim - inicio == 1) {
+                processarBloco(blocos[inicio]);
+            }
+            else {
+                int meio = (inicio + fim) / 2;
+                invokeAll(new TarefaDeBlocos(blocos, inicio, meio),
+                          new TarefaDeBlocos(blocos, meio, fim));
+            }
+        }
+    }
+}
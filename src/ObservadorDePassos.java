@@ -0,0 +1,38 @@
+/**
+ * Recebe o estado da população ao final de cada passo da simulação (e ao
+ * início de cada execução). Diferente das visões, um
+ * observador recebe todos os passos, e por isso é chamado diretamente pela
+ * thread da simulação: ele não deve alocar objetos nem fazer E/S durante a
+ * chamada, apenas copiar os valores de que precisa.
+ * 
+ * @version 2025.05.24
+ */
+public interface ObservadorDePassos
+{
+    /**
+     * Informa o fim de um passo.
+     * @param passo O passo que terminou (zero no início de uma execução).
+     * @param campo O campo da simulação.
+     * @param estatisticas As contagens da população, já atualizadas.
+     */
+    public void passoConcluido(int passo, Campo campo, EstatisticasCampo estatisticas);
+
+    /**
+     * Informa o início de uma nova execução (ao reiniciar a simulação ou ao
+     * carregar um estado salvo). Os passos informados a seguir continuam a
+     * partir do passo fornecido. Por padrão, é tratado como um passo concluído.
+     * @param passo O passo em que a execução começa.
+     * @param campo O campo da simulação.
+     * @param estatisticas As contagens da população.
+     */
+    public default void execucaoIniciada(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        passoConcluido(passo, campo, estatisticas);
+    }
+
+    /**
+     * Conclui o trabalho do observador, liberando os recursos que ele usa.
+     * Nenhum passo é informado depois disso.
+     */
+    public void encerrar();
+}
@@ -0,0 +1,191 @@
+/**
+ * Os parâmetros de uma simulação: as características de cada espécie e as
+ * densidades iniciais da população. Cada campo tem seus próprios parâmetros
+ * (veja Campo.obterParametros), de forma que várias simulações com
+ * configurações diferentes podem ser executadas ao mesmo tempo, na mesma JVM.
+ *
+ * Os valores padrões são os do modelo original. Os parâmetros não devem ser
+ * alterados depois que a simulação que os usa for iniciada.
+ *
+ * @version 2025.05.24
+ */
+public class Parametros
+{
+    // Parâmetros das raposas.
+
+    // A idade em que uma raposa pode começar a procriar.
+    private int idadeReproducaoRaposa = 15;
+    // A idade máxima que uma raposa pode atingir.
+    private int idadeMaximaRaposa = 150;
+    // A probabilidade de uma raposa se reproduzir.
+    private double probabilidadeReproducaoRaposa = 0.08;
+    // O número máximo de filhotes que podem nascer de cada vez.
+    private int tamanhoMaximoNinhadaRaposa = 2;
+    // O valor nutricional de um único coelho. Na prática, este é o
+    // número de passos que uma raposa pode dar antes de precisar comer novamente.
+    private int valorComidaCoelho = 9;
+    // nível máximo de comida que a raposa pode atingir (fica cheia)
+    private int nivelComidaMaximo = 20;
+
+    // Parâmetros dos coelhos.
+
+    // A idade em que um coelho pode começar a se reproduzir.
+    private int idadeReproducaoCoelho = 5;
+    // A idade máxima que um coelho pode atingir.
+    private int idadeMaximaCoelho = 40;
+    // A probabilidade de um coelho se reproduzir.
+    private double probabilidadeReproducaoCoelho = 0.12;
+    // O número máximo de filhotes que podem nascer de cada vez.
+    private int tamanhoMaximoNinhadaCoelho = 4;
+
+    // Densidades iniciais.
+
+    // A probabilidade de uma raposa ser criada em qualquer posição da grade.
+    private double probabilidadeCriacaoRaposa = GeradorDePopulacoes.PROBABILIDADE_CRIACAO_RAPOSA;
+    // A probabilidade de um coelho ser criado em qualquer posição.
+    private double probabilidadeCriacaoCoelho = GeradorDePopulacoes.PROBABILIDADE_CRIACAO_COELHO;
+
+    /**
+     * Cria parâmetros com os valores padrões.
+     */
+    public Parametros()
+    {
+    }
+
+    /**
+     * @return Uma cópia destes parâmetros, que pode ser alterada independentemente.
+     */
+    public Parametros copiar()
+    {
+        Parametros copia = new Parametros();
+        copia.idadeReproducaoRaposa = idadeReproducaoRaposa;
+        copia.idadeMaximaRaposa = idadeMaximaRaposa;
+        copia.probabilidadeReproducaoRaposa = probabilidadeReproducaoRaposa;
+        copia.tamanhoMaximoNinhadaRaposa = tamanhoMaximoNinhadaRaposa;
+        copia.valorComidaCoelho = valorComidaCoelho;
+        copia.nivelComidaMaximo = nivelComidaMaximo;
+        copia.idadeReproducaoCoelho = idadeReproducaoCoelho;
+        copia.idadeMaximaCoelho = idadeMaximaCoelho;
+        copia.probabilidadeReproducaoCoelho = probabilidadeReproducaoCoelho;
+        copia.tamanhoMaximoNinhadaCoelho = tamanhoMaximoNinhadaCoelho;
+        copia.probabilidadeCriacaoRaposa = probabilidadeCriacaoRaposa;
+        copia.probabilidadeCriacaoCoelho = probabilidadeCriacaoCoelho;
+        return copia;
+    }
+
+    /**
+     * Altera um parâmetro a partir do seu nome, como usado na linha de comando
+     * de VarreduraDeParametros (por exemplo, "raposa.idadeReproducao").
+     * Parâmetros inteiros recebem o valor fornecido arredondado.
+     * @param nome O nome do parâmetro.
+     * @param valor O novo valor.
+     * @throws IllegalArgumentException Se não houver parâmetro com esse nome
+     *         ou se o valor estiver fora do intervalo permitido: idades,
+     *         tamanhos de ninhada e valores de comida devem ser pelo menos 1,
+     *         e probabilidades devem estar entre 0 e 1.
+     */
+    public void definir(String nome, double valor)
+    {
+        switch(nome) {
+            case "raposa.idadeReproducao": idadeReproducaoRaposa = exigirPositivo(nome, valor); break;
+            case "raposa.idadeMaxima": idadeMaximaRaposa = exigirPositivo(nome, valor); break;
+            case "raposa.probabilidadeReproducao": probabilidadeReproducaoRaposa = exigirProbabilidade(nome, valor); break;
+            case "raposa.tamanhoMaximoNinhada": tamanhoMaximoNinhadaRaposa = exigirPositivo(nome, valor); break;
+            case "raposa.valorComidaCoelho": valorComidaCoelho = exigirPositivo(nome, valor); break;
+            case "raposa.nivelComidaMaximo": nivelComidaMaximo = exigirPositivo(nome, valor); break;
+            case "raposa.probabilidadeCriacao": probabilidadeCriacaoRaposa = exigirProbabilidade(nome, valor); break;
+            case "coelho.idadeReproducao": idadeReproducaoCoelho = exigirPositivo(nome, valor); break;
+            case "coelho.idadeMaxima": idadeMaximaCoelho = exigirPositivo(nome, valor); break;
+            case "coelho.probabilidadeReproducao": probabilidadeReproducaoCoelho = exigirProbabilidade(nome, valor); break;
+            case "coelho.tamanhoMaximoNinhada": tamanhoMaximoNinhadaCoelho = exigirPositivo(nome, valor); break;
+            case "coelho.probabilidadeCriacao": probabilidadeCriacaoCoelho = exigirProbabilidade(nome, valor); break;
+            default:
+                throw new IllegalArgumentException("Parâmetro desconhecido: " + nome);
+        }
+    }
+
+    /**
+     * @return O valor arredondado, se for pelo menos 1.
+     * @throws IllegalArgumentException Caso contrário.
+     */
+    private static int exigirPositivo(String nome, double valor)
+    {
+        long inteiro = Math.round(valor);
+        if(!(inteiro >= 1 && inteiro <= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("O parâmetro " + nome + " deve ser pelo menos 1: " + valor);
+        }
+        return (int) inteiro;
+    }
+
+    /**
+     * @return O valor, se for uma probabilidade (entre 0 e 1).
+     * @throws IllegalArgumentException Caso contrário.
+     */
+    private static double exigirProbabilidade(String nome, double valor)
+    {
+        if(!(valor >= 0 && valor <= 1)) {
+            throw new IllegalArgumentException("O parâmetro " + nome + " deve estar entre 0 e 1: " + valor);
+        }
+        return valor;
+    }
+
+    public int obterIdadeReproducaoRaposa()
+    {
+        return idadeReproducaoRaposa;
+    }
+
+    public int obterIdadeMaximaRaposa()
+    {
+        return idadeMaximaRaposa;
+    }
+
+    public double obterProbabilidadeReproducaoRaposa()
+    {
+        return probabilidadeReproducaoRaposa;
+    }
+
+    public int obterTamanhoMaximoNinhadaRaposa()
+    {
+        return tamanhoMaximoNinhadaRaposa;
+    }
+
+    public int obterValorComidaCoelho()
+    {
+        return valorComidaCoelho;
+    }
+
+    public int obterNivelComidaMaximo()
+    {
+        return nivelComidaMaximo;
+    }
+
+    public int obterIdadeReproducaoCoelho()
+    {
+        return idadeReproducaoCoelho;
+    }
+
+    public int obterIdadeMaximaCoelho()
+    {
+        return idadeMaximaCoelho;
+    }
+
+    public double obterProbabilidadeReproducaoCoelho()
+    {
+        return probabilidadeReproducaoCoelho;
+    }
+
+    public int obterTamanhoMaximoNinhadaCoelho()
+    {
+        return tamanhoMaximoNinhadaCoelho;
+    }
+
+    public double obterProbabilidadeCriacaoRaposa()
+    {
+        return probabilidadeCriacaoRaposa;
+    }
+
+    public double obterProbabilidadeCriacaoCoelho()
+    {
+        return probabilidadeCriacaoCoelho;
+    }
+}
@@ -0,0 +1,216 @@
+import java.util.Arrays;
+
+/**
+ * Uma fotografia imutável do estado da simulação em um passo, publicada pelo
+ * simulador para as visões. Como o quadro não é alterado depois de criado,
+ * as visões podem desenhá-lo em outra thread (a thread de eventos do Swing)
+ * enquanto o simulador já calcula os passos seguintes.
+ * 
+ * Além das espécies de cada posição, o quadro guarda quais posições foram
+ * alteradas desde o quadro anterior. Uma visão que desenhou o quadro anterior
+ * pode então redesenhar apenas essas posições; se algum quadro foi descartado
+ * no meio do caminho (veja obterNumero), ela deve redesenhar tudo.
+ * 
+ * @version 2025.05.24
+ */
+public class Quadro
+{
+    // Número sequencial do quadro, que permite detectar quadros descartados.
+    private final int numero;
+    // O passo da simulação mostrado no quadro.
+    private final int passo;
+    // As dimensões do campo.
+    private final int comprimento, largura;
+    // O código da espécie de cada posição (veja Campo.obterEspecieEm).
+    private final short[] especies;
+    // A classe de cada código de espécie; a classe de código c fica na posição c - 1.
+    private final Class<?>[] classesEspecies;
+    // A população de cada código de espécie.
+    private final int[] populacoes;
+    // Um bit por posição, ligado se a posição mudou desde o quadro anterior.
+    private final long[] alteradas;
+    // Descrição textual da população.
+    private final String detalhesPopulacao;
+
+    /**
+     * Cria um quadro com o estado atual do campo. As alterações registradas
+     * no campo são transferidas para o quadro (e limpas no campo).
+     * Deve ser chamado entre passos, pela thread que executa a simulação.
+     * @param numero O número sequencial do quadro.
+     * @param passo O passo atual da simulação.
+     * @param campo O campo da simulação.
+     * @param estatisticas As contagens atuais da população.
+     * @return O novo quadro.
+     */
+    public static Quadro capturar(int numero, int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        Class<?>[] classes = campo.obterClassesEspecies();
+        int[] populacoes = new int[classes.length + 1];
+        for(int i = 0; i < classes.length; i++) {
+            populacoes[i + 1] = estatisticas.obterContagemPopulacao(campo, classes[i]);
+        }
+        return new Quadro(numero, passo, campo.obterComprimento(), campo.obterLargura(),
+                          campo.copiarEspecies(), classes, populacoes,
+                          campo.transferirAlteracoes(),
+                          estatisticas.obterDetalhesPopulacao(campo));
+    }
+
+    /**
+     * Cria um quadro a partir das espécies de cada posição, reconstruídas
+     * (veja RegistroDeEventos). Todas as posições são marcadas como alteradas.
+     * @param numero O número do quadro.
+     * @param passo O passo reconstruído.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @param especies O código da espécie de cada posição; passa a pertencer ao quadro.
+     * @param classesEspecies A classe de cada código de espécie.
+     * @return O novo quadro.
+     */
+    public static Quadro reconstruir(int numero, int passo, int comprimento, int largura,
+                                     short[] especies, Class<?>[] classesEspecies)
+    {
+        int[] populacoes = new int[classesEspecies.length + 1];
+        for(short especie : especies) {
+            populacoes[especie]++;
+        }
+        StringBuilder detalhes = new StringBuilder();
+        for(int i = 0; i < classesEspecies.length; i++) {
+            detalhes.append(classesEspecies[i].getName()).append(": ")
+                    .append(populacoes[i + 1]).append(' ');
+        }
+        long[] alteradas = new long[(especies.length + 63) / 64];
+        Arrays.fill(alteradas, -1L);
+        return new Quadro(numero, passo, comprimento, largura, especies, classesEspecies,
+                          populacoes, alteradas, detalhes.toString());
+    }
+
+    /**
+     * Cria um quadro. Os arranjos passam a pertencer ao quadro e não devem
+     * ser alterados por quem o criou.
+     */
+    private Quadro(int numero, int passo, int comprimento, int largura, short[] especies,
+                   Class<?>[] classesEspecies, int[] populacoes, long[] alteradas, 
+                   String detalhesPopulacao)
+    {
+        this.numero = numero;
+        this.passo = passo;
+        this.comprimento = comprimento;
+        this.largura = largura;
+        this.especies = especies;
+        this.classesEspecies = classesEspecies;
+        this.populacoes = populacoes;
+        this.alteradas = alteradas;
+        this.detalhesPopulacao = detalhesPopulacao;
+    }
+
+    /**
+     * @return O número sequencial do quadro. Quadros consecutivos publicados
+     *         pelo simulador têm números consecutivos.
+     */
+    public int obterNumero()
+    {
+        return numero;
+    }
+
+    /**
+     * @return O passo da simulação mostrado no quadro.
+     */
+    public int obterPasso()
+    {
+        return passo;
+    }
+
+    /**
+     * @return O comprimento do campo.
+     */
+    public int obterComprimento()
+    {
+        return comprimento;
+    }
+
+    /**
+     * @return A largura do campo.
+     */
+    public int obterLargura()
+    {
+        return largura;
+    }
+
+    /**
+     * @return Quantas espécies estavam registradas no campo.
+     */
+    public int obterNumeroEspecies()
+    {
+        return classesEspecies.length;
+    }
+
+    /**
+     * @param indice O índice linear da posição (linha * largura + coluna).
+     * @return O código da espécie na posição, ou Campo.ESPECIE_VAZIA.
+     */
+    public short obterEspecieEm(int indice)
+    {
+        return especies[indice];
+    }
+
+    /**
+     * @param codigo O código da espécie.
+     * @return A classe da espécie, ou null para Campo.ESPECIE_VAZIA.
+     */
+    public Class<?> obterClasseEspecie(short codigo)
+    {
+        if(codigo == Campo.ESPECIE_VAZIA) {
+            return null;
+        }
+        return classesEspecies[codigo - 1];
+    }
+
+    /**
+     * @param classe A classe de animal.
+     * @return Quantos animais da classe existiam no passo do quadro.
+     */
+    public int obterPopulacao(Class<?> classe)
+    {
+        for(int i = 0; i < classesEspecies.length; i++) {
+            if(classesEspecies[i] == classe) {
+                return populacoes[i + 1];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Uma descrição textual da população.
+     */
+    public String obterDetalhesPopulacao()
+    {
+        return detalhesPopulacao;
+    }
+
+    /**
+     * Retorna o índice da primeira posição alterada desde o quadro anterior,
+     * a partir do índice fornecido (inclusive).
+     * @param inicio O índice a partir do qual procurar.
+     * @return O índice da próxima posição alterada, ou -1 se não houver.
+     */
+    public int proximaPosicaoAlterada(int inicio)
+    {
+        int total = especies.length;
+        if(inicio >= total) {
+            return -1;
+        }
+        int palavra = inicio >>> 6;
+        long bits = alteradas[palavra] & (-1L << inicio);
+        while(true) {
+            if(bits != 0) {
+                int indice = palavra * 64 + Long.numberOfTrailingZeros(bits);
+                return indice < total ? indice : -1;
+            }
+            palavra++;
+            if(palavra == alteradas.length) {
+                return -1;
+            }
+            bits = alteradas[palavra];
+        }
+    }
+}
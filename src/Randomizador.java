@@ -13,11 +13,17 @@ import java.util.Random;
 public class Randomizador
 {
     // A semente padrão para controle da randomização.
-    private static final int SEMENTE = 1111;
+    private static final int SEMENTE_PADRAO = 1111;
+    // A semente atualmente em uso.
+    private static long semente = SEMENTE_PADRAO;
     // Um objeto Random compartilhado, se necessário.
-    private static final Random rand = new Random(SEMENTE);
+    private static final Random rand = new Random(semente);
     // Determina se um gerador aleatório compartilhado deve ser fornecido.
     private static final boolean usarCompartilhado = true;
+    // Gerador usado por padrão nos pontos da simulação que sorteiam valores.
+    private static final Random randPadrao = obterRandom();
+    // Gerador vinculado à thread atual, se houver (usado pela execução paralela).
+    private static final ThreadLocal<Random> randDaThread = new ThreadLocal<>();
 
     /**
      * Construtor para objetos da classe Randomizador.
@@ -40,6 +46,39 @@ public class Randomizador
         }
     }
     
+    /**
+     * Fornece o gerador aleatório que deve ser usado pela thread atual.
+     * Se nenhum gerador tiver sido vinculado à thread (veja vincular), 
+     * retorna o gerador padrão.
+     * @return Um objeto Random.
+     */
+    public static Random obterRandomAtual()
+    {
+        Random vinculado = randDaThread.get();
+        if(vinculado != null) {
+            return vinculado;
+        }
+        return randPadrao;
+    }
+
+    /**
+     * Vincula um gerador à thread atual. Até que desvincular seja chamado,
+     * obterRandomAtual retornará esse gerador nesta thread.
+     * @param gerador O gerador a ser usado pela thread atual.
+     */
+    public static void vincular(Random gerador)
+    {
+        randDaThread.set(gerador);
+    }
+
+    /**
+     * Desfaz o vínculo da thread atual com seu gerador.
+     */
+    public static void desvincular()
+    {
+        randDaThread.remove();
+    }
+    
     /**
      * Reseta a randomização.
      * Isso não terá efeito se a randomização não for feita através de um gerador Random compartilhado.
@@ -47,7 +86,25 @@ public class Randomizador
     public static void resetar()
     {
         if(usarCompartilhado) {
-            rand.setSeed(SEMENTE);
+            rand.setSeed(semente);
         }
     }
+
+    /**
+     * Define uma nova semente e reseta a randomização com ela.
+     * @param novaSemente A semente a ser usada daqui em diante.
+     */
+    public static void definirSemente(long novaSemente)
+    {
+        semente = novaSemente;
+        resetar();
+    }
+
+    /**
+     * @return A semente atualmente em uso.
+     */
+    public static long obterSemente()
+    {
+        return semente;
+    }
 }
\ No newline at end of file
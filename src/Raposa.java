@@ -1,6 +1,4 @@
 import java.util.List;
-import java.util.Iterator;
-import java.util.Random;
 
 /**
  * Um modelo simples de uma raposa.
@@ -12,23 +10,9 @@ import java.util.Random;
  */
 public class Raposa extends Animal
 {
-    // Características compartilhadas por todas as raposas (atributos estáticos, da classe).
-    
-    // A idade em que uma raposa pode começar a procriar.
-    private static final int IDADE_REPRODUCAO = 15;
-    // A idade máxima que uma raposa pode atingir.
-    private static final int IDADE_MAXIMA = 150;
-    // A probabilidade de uma raposa se reproduzir.
-    private static final double PROBABILIDADE_REPRODUCAO = 0.08;
-    // O número máximo de filhotes que podem nascer de cada vez.
-    private static final int TAMANHO_MAXIMO_NINHADA = 2;
-    // O valor nutricional de um único coelho. Na prática, este é o
-    // número de passos que uma raposa pode dar antes de precisar comer novamente.
-    private static final int VALOR_COMIDA_COELHO = 9;
-    // nível máximo de comida que a raposa pode atingir (fica cheia)
-    private static final int NIVEL_COMIDA_MAXIMO = 20;
-    // Um gerador de números aleatórios compartilhado para controlar a reprodução.
-    private static final Random rand = Randomizador.obterRandom();
+    // As características compartilhadas por todas as raposas (idade de
+    // reprodução, valor nutricional de um coelho etc.) vêm dos parâmetros
+    // da simulação (veja Parametros).
     
     // Características individuais (atributos comuns, de instância).
 
@@ -46,17 +30,62 @@ public class Raposa extends Animal
     public Raposa(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
     {
         super(idadeAleatoria, campo, localizacao);
+        inicializarEspecie(idadeAleatoria);
+    }
+
+    /**
+     * Cria uma raposa, reaproveitando uma raposa morta do reservatório do
+     * campo se houver alguma. O resultado é o mesmo do construtor.
+     * 
+     * @param idadeAleatoria Se verdadeiro, a raposa terá idade e nível de fome aleatórios.
+     * @param campo O campo atualmente ocupado.
+     * @param localizacao A localização dentro do campo.
+     * @return A raposa.
+     */
+    public static Raposa criar(boolean idadeAleatoria, Campo campo, Localizacao localizacao)
+    {
+        ReservatorioDeAnimais reservatorio = campo.obterReservatorio();
+        Animal morta = reservatorio == null ? null : reservatorio.retirar(Raposa.class);
+        if(morta == null) {
+            return new Raposa(idadeAleatoria, campo, localizacao);
+        }
+        morta.reinicializar(idadeAleatoria, campo, localizacao);
+        return (Raposa) morta;
+    }
+
+    /**
+     * Define o nível de comida inicial da raposa.
+     */
+    @Override
+    protected void inicializarEspecie(boolean idadeAleatoria)
+    {
         if(idadeAleatoria) {
-            nivelComida = rand.nextInt(VALOR_COMIDA_COELHO);
+            nivelComida = Randomizador.obterRandomAtual().nextInt(obterParametros().obterValorComidaCoelho());
         }
         else {
-            nivelComida = VALOR_COMIDA_COELHO;
+            nivelComida = obterParametros().obterValorComidaCoelho();
         }
     }
 
+    /**
+     * @return O nível de comida da raposa.
+     */
+    int obterNivelComida() {
+        return nivelComida;
+    }
+
+    /**
+     * Define o nível de comida da raposa. Usado apenas ao restaurar um estado
+     * salvo (veja ArquivoDeEstado).
+     * @param nivelComida O nível de comida.
+     */
+    void definirNivelComida(int nivelComida) {
+        this.nivelComida = nivelComida;
+    }
+
     @Override
     protected int obterIdadeMaxima() {
-        return IDADE_MAXIMA;
+        return obterParametros().obterIdadeMaximaRaposa();
     }
     
     /**
@@ -84,7 +113,7 @@ public class Raposa extends Animal
             }
             else {
                 // Superlotação.
-                morrer();
+                morrer(CausaDeMorte.SUPERLOTACAO);
             }
         }
     }
@@ -96,55 +125,65 @@ public class Raposa extends Animal
     {
         nivelComida--;
         if(nivelComida <= 0) {
-            morrer();
+            morrer(CausaDeMorte.FOME);
         }
     }
     
     /**
-     * Procura por coelhos adjacentes à localização atual.
-     * Apenas o primeiro coelho vivo é comido.
+     * Procura por coelhos adjacentes à localização atual. Todos os coelhos
+     * vizinhos são comidos, e a raposa vai para a posição de um deles,
+     * sorteado. Os coelhos vizinhos são encontrados pelo mapa de ocupação do
+     * campo (veja Campo.obterVizinhancaDaEspecie), sem percorrer os vizinhos.
+     * Visível no pacote para que possa ser medido por BenchmarkSimulacao.
      * @return Onde a comida foi encontrada, ou null se não foi.
      */
-    private Localizacao buscarComida()
+    Localizacao buscarComida()
     {
-        List<Localizacao> vizinhas = obterCampo().localizacoesVizinhas(obterLocalizacao());
-		Iterator<Localizacao> it = vizinhas.iterator();
-		Localizacao localizacaoFinal = null;
-		while(it.hasNext()) {
-		    Localizacao onde = it.next();
-		    Object animal = obterCampo().obterObjetoEm(onde);
-		    if(animal instanceof Coelho) {
-		        Coelho coelho = (Coelho) animal;
-		        if(coelho.estaVivo()) { 
-		            coelho.morrer();
-		            nivelComida += VALOR_COMIDA_COELHO;
-		            if (nivelComida > NIVEL_COMIDA_MAXIMO) {
-		                nivelComida = NIVEL_COMIDA_MAXIMO;
-		            }
-		            localizacaoFinal = onde;
-		        }
-		    }
-		}
-		return localizacaoFinal;
+        Campo campo = obterCampo();
+        int posicao = campo.obterIndice(obterLocalizacao());
+        int presas = campo.obterVizinhancaDaEspecie(posicao, campo.obterCodigoEspecie(Coelho.class));
+        if(presas == 0) {
+            return null;
+        }
+        int quantidade = Integer.bitCount(presas);
+        int sorteada = quantidade == 1 ? 0 : Randomizador.obterRandomAtual().nextInt(quantidade);
+        Parametros parametros = obterParametros();
+        RegistroDeEventos registro = campo.obterRegistroDeEventos();
+        int indiceFinal = -1;
+        for(int n = 0; presas != 0; n++, presas &= presas - 1) {
+            int onde = campo.obterIndiceVizinho(posicao, Integer.numberOfTrailingZeros(presas));
+            if(registro != null) {
+                registro.registrarAbate(onde, posicao);
+            }
+            ((Coelho) campo.obterObjetoEm(onde)).morrer(CausaDeMorte.ABATE);
+            nivelComida += parametros.obterValorComidaCoelho();
+            if (nivelComida > parametros.obterNivelComidaMaximo()) {
+                nivelComida = parametros.obterNivelComidaMaximo();
+            }
+            if(n == sorteada) {
+                indiceFinal = onde;
+            }
+        }
+        return campo.obterLocalizacao(indiceFinal);
     }
 
     @Override
     protected Animal criarNovoFilhote(boolean idadeAleatoria, Campo campo, Localizacao localizacao) {
-        return new Raposa(false, obterCampo(), localizacao);
+        return criar(false, obterCampo(), localizacao);
     }
 
     @Override
     protected int obterIdadeReproducao() {
-        return IDADE_REPRODUCAO;
+        return obterParametros().obterIdadeReproducaoRaposa();
     }
 
     @Override
     protected double obterProbabilidadeReproducao() {
-        return PROBABILIDADE_REPRODUCAO;
+        return obterParametros().obterProbabilidadeReproducaoRaposa();
     }
 
     @Override
     protected int obterTamanhoMaximoNinhada() {
-        return TAMANHO_MAXIMO_NINHADA;
+        return obterParametros().obterTamanhoMaximoNinhadaRaposa();
     }
 }
\ No newline at end of file
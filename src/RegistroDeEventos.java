@@ -0,0 +1,402 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Registra o que acontece em cada passo da simulação (nascimentos,
+ * movimentos, mortes e abates), de forma compacta, para que qualquer passo
+ * já simulado possa ser reconstruído sem executar o modelo novamente.
+ *
+ * Cada evento ocupa um único int: 2 bits para o tipo, 3 bits para a espécie
+ * ou para a direção do vizinho envolvido, e 27 bits para a posição no campo.
+ * Como os animais só se movem para posições vizinhas, um movimento é
+ * guardado como a posição de origem e a direção do destino. Os eventos são
+ * guardados em blocos de tamanho fixo, para que o registro possa crescer sem
+ * copiar os eventos anteriores.
+ *
+ * A cada intervaloQuadrosChave passos é guardada também uma cópia completa
+ * das espécies de cada posição (um quadro-chave). Para reconstruir um passo,
+ * parte-se do quadro-chave anterior mais próximo e aplicam-se os eventos dos
+ * passos seguintes, até o passo desejado.
+ *
+ * Os eventos são informados pelos animais através do campo (veja
+ * Campo.obterRegistroDeEventos) e os passos são delimitados pelo simulador,
+ * do qual o registro é um observador. Ao reiniciar a simulação ou carregar
+ * um estado, o registro recomeça a partir do novo passo inicial.
+ *
+ * Durante um passo, os eventos são guardados em lotes, sem sincronização, e
+ * só são incorporados ao registro no fim do passo. A thread da simulação usa
+ * um lote próprio; o motor paralelo vincula a cada thread o lote do bloco que
+ * ela está processando (veja vincularLote), e os lotes são incorporados na
+ * ordem de seus números, que não depende de qual thread processou cada
+ * bloco. Só os métodos que delimitam os passos e os que leem o registro são
+ * sincronizados, pois a reconstrução pode ser feita pela thread de eventos
+ * do Swing durante a simulação.
+ *
+ * @version 2025.05.24
+ */
+public class RegistroDeEventos implements ObservadorDePassos
+{
+    // Tipos de eventos.
+    private static final int NASCIMENTO = 0;
+    private static final int MOVIMENTO = 1;
+    private static final int MORTE = 2;
+    private static final int ABATE = 3;
+    // Quantos bits de cada evento guardam a posição.
+    private static final int BITS_POSICAO = 27;
+    private static final int MASCARA_POSICAO = (1 << BITS_POSICAO) - 1;
+    // Maior código de espécie que cabe em um evento.
+    private static final int MAXIMO_ESPECIE = 7;
+    // Quantos eventos cabem em cada bloco.
+    private static final int TAMANHO_BLOCO = 1 << 16;
+    // Deslocamento (linha, coluna) de cada direção de vizinho.
+    private static final int[] DESLOCAMENTO_LINHA = { -1, -1, -1, 0, 0, 1, 1, 1 };
+    private static final int[] DESLOCAMENTO_COLUNA = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    // A direção de cada deslocamento, indexada por (linha + 1) * 3 + coluna + 1.
+    private static final int[] DIRECAO = { 0, 1, 2, 3, -1, 4, 5, 6, 7 };
+
+    // O campo cujos eventos são registrados.
+    private final Campo campo;
+    private final int largura;
+    // De quantos em quantos passos um quadro-chave é guardado.
+    private final int intervaloQuadrosChave;
+    // Os eventos, em blocos de TAMANHO_BLOCO.
+    private final List<int[]> blocos;
+    // Quantos eventos foram registrados.
+    private long quantidade;
+    // Indica se há uma execução sendo registrada.
+    private boolean iniciado;
+    // O passo do primeiro quadro-chave e o último passo concluído.
+    private int passoInicial, ultimoPasso;
+    // Para cada passo concluído, o número de eventos registrados até o seu fim.
+    private long[] fimDoPasso;
+    // Os quadros-chave, a partir do passo inicial.
+    private final List<short[]> quadrosChave;
+    // Os eventos do passo em andamento informados fora de um lote vinculado.
+    private final Lote pendentes;
+    // Os lotes numerados do passo em andamento (veja prepararLotes).
+    private Lote[] lotes;
+    // O lote vinculado a cada thread, se houver.
+    private final ThreadLocal<Lote> loteDaThread;
+
+    /**
+     * Cria um registro para o campo fornecido. O registro só começa a valer
+     * quando o simulador informar o primeiro passo.
+     * @param campo O campo da simulação.
+     * @param intervaloQuadrosChave De quantos em quantos passos guardar um quadro-chave.
+     */
+    public RegistroDeEventos(Campo campo, int intervaloQuadrosChave)
+    {
+        if(campo.obterComprimento() * (long) campo.obterLargura() > MASCARA_POSICAO + 1L) {
+            throw new IllegalArgumentException("O campo é grande demais para o registro de eventos.");
+        }
+        this.campo = campo;
+        this.largura = campo.obterLargura();
+        this.intervaloQuadrosChave = intervaloQuadrosChave;
+        blocos = new ArrayList<>();
+        quadrosChave = new ArrayList<>();
+        fimDoPasso = new long[1024];
+        pendentes = new Lote();
+        lotes = new Lote[0];
+        loteDaThread = new ThreadLocal<>();
+        iniciado = false;
+    }
+
+    /**
+     * Garante que haja pelo menos a quantidade fornecida de lotes numerados.
+     * Deve ser chamado pela thread da simulação antes de os lotes serem
+     * vinculados a outras threads.
+     * @param quantidade Quantos lotes serão usados no passo.
+     */
+    public void prepararLotes(int quantidade)
+    {
+        if(quantidade > lotes.length) {
+            int anterior = lotes.length;
+            lotes = Arrays.copyOf(lotes, quantidade);
+            for(int i = anterior; i < quantidade; i++) {
+                lotes[i] = new Lote();
+            }
+        }
+    }
+
+    /**
+     * Vincula um lote à thread atual. Até que desvincularLote seja chamado,
+     * os eventos informados por esta thread são guardados nesse lote. Dois
+     * lotes vinculados ao mesmo tempo devem ter números diferentes.
+     * @param numero O número do lote, menor que a quantidade preparada.
+     */
+    public void vincularLote(int numero)
+    {
+        loteDaThread.set(lotes[numero]);
+    }
+
+    /**
+     * Desfaz o vínculo da thread atual com seu lote.
+     */
+    public void desvincularLote()
+    {
+        loteDaThread.remove();
+    }
+
+    /**
+     * Registra o nascimento (ou a criação) de um animal.
+     * @param especie O código da espécie do animal.
+     * @param indice A posição em que o animal foi colocado.
+     */
+    public void registrarNascimento(short especie, int indice)
+    {
+        if(especie > MAXIMO_ESPECIE) {
+            throw new IllegalStateException("Espécies demais para o registro de eventos.");
+        }
+        acrescentar(NASCIMENTO, especie, indice);
+    }
+
+    /**
+     * Registra o movimento de um animal.
+     * @param especie O código da espécie do animal.
+     * @param origem A posição de onde o animal saiu.
+     * @param destino A posição para onde o animal foi.
+     */
+    public void registrarMovimento(short especie, int origem, int destino)
+    {
+        int direcao = direcao(origem, destino);
+        if(direcao >= 0) {
+            acrescentar(MOVIMENTO, direcao, origem);
+        }
+        else {
+            // Um movimento que não é para um vizinho é registrado como
+            // uma saída seguida de uma chegada.
+            acrescentar(MORTE, 0, origem);
+            registrarNascimento(especie, destino);
+        }
+    }
+
+    /**
+     * Registra a morte de um animal (que deixa sua posição vazia).
+     * @param indice A posição do animal.
+     */
+    public void registrarMorte(int indice)
+    {
+        acrescentar(MORTE, 0, indice);
+    }
+
+    /**
+     * Registra que um predador comeu uma presa vizinha. O evento é apenas
+     * informativo: a morte da presa é registrada separadamente.
+     * @param presa A posição da presa.
+     * @param predador A posição do predador.
+     */
+    public void registrarAbate(int presa, int predador)
+    {
+        acrescentar(ABATE, Math.max(0, direcao(presa, predador)), presa);
+    }
+
+    /**
+     * Recomeça o registro a partir do passo fornecido. Os eventos anteriores
+     * (inclusive os da criação da população) estão todos representados no
+     * quadro-chave desse passo.
+     */
+    @Override
+    public synchronized void execucaoIniciada(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        blocos.clear();
+        quadrosChave.clear();
+        quantidade = 0;
+        descartarLotes();
+        iniciado = true;
+        passoInicial = passo;
+        ultimoPasso = passo - 1;
+        passoConcluido(passo, campo, estatisticas);
+    }
+
+    /**
+     * Delimita o fim de um passo, incorporando ao registro os eventos
+     * guardados nos lotes: primeiro os informados fora de um lote vinculado,
+     * depois os dos lotes numerados, em ordem.
+     */
+    @Override
+    public synchronized void passoConcluido(int passo, Campo campo, EstatisticasCampo estatisticas)
+    {
+        if(!iniciado || passo != ultimoPasso + 1) {
+            // O registro não acompanhou o início da execução.
+            execucaoIniciada(passo, campo, estatisticas);
+            return;
+        }
+        incorporar(pendentes);
+        for(Lote lote : lotes) {
+            incorporar(lote);
+        }
+        int relativo = passo - passoInicial;
+        if(relativo == fimDoPasso.length) {
+            fimDoPasso = Arrays.copyOf(fimDoPasso, fimDoPasso.length * 2);
+        }
+        fimDoPasso[relativo] = quantidade;
+        if(relativo % intervaloQuadrosChave == 0) {
+            quadrosChave.add(campo.copiarEspecies());
+        }
+        ultimoPasso = passo;
+    }
+
+    /**
+     * Libera a memória usada pelo registro.
+     */
+    @Override
+    public synchronized void encerrar()
+    {
+        blocos.clear();
+        quadrosChave.clear();
+        quantidade = 0;
+        descartarLotes();
+        iniciado = false;
+    }
+
+    /**
+     * @return O primeiro passo que pode ser reconstruído, ou -1 se não houver nenhum.
+     */
+    public synchronized int obterPrimeiroPasso()
+    {
+        return iniciado ? passoInicial : -1;
+    }
+
+    /**
+     * @return O último passo que pode ser reconstruído, ou -1 se não houver nenhum.
+     */
+    public synchronized int obterUltimoPasso()
+    {
+        return iniciado ? ultimoPasso : -1;
+    }
+
+    /**
+     * Reconstrói um passo já simulado, sem executar o modelo.
+     * @param numero O número do quadro a ser criado.
+     * @param passo O passo, entre obterPrimeiroPasso e obterUltimoPasso.
+     * @return Um quadro com o estado do campo ao final do passo.
+     */
+    public synchronized Quadro reconstruir(int numero, int passo)
+    {
+        if(!iniciado || passo < passoInicial || passo > ultimoPasso) {
+            throw new IllegalArgumentException("O passo " + passo + " não foi registrado.");
+        }
+        int relativo = passo - passoInicial;
+        int chave = relativo / intervaloQuadrosChave;
+        short[] especies = quadrosChave.get(chave).clone();
+        long inicio = fimDoPasso[chave * intervaloQuadrosChave];
+        long fim = fimDoPasso[relativo];
+        for(long i = inicio; i < fim; i++) {
+            aplicar(especies, blocos.get((int) (i / TAMANHO_BLOCO))[(int) (i % TAMANHO_BLOCO)]);
+        }
+        return Quadro.reconstruir(numero, passo, campo.obterComprimento(), largura,
+                                  especies, campo.obterClassesEspecies());
+    }
+
+    /**
+     * Aplica um evento às espécies de cada posição.
+     */
+    private void aplicar(short[] especies, int evento)
+    {
+        int tipo = evento >>> 30;
+        int argumento = (evento >>> BITS_POSICAO) & 7;
+        int indice = evento & MASCARA_POSICAO;
+        switch(tipo) {
+            case NASCIMENTO:
+                especies[indice] = (short) argumento;
+                break;
+            case MOVIMENTO:
+                int destino = vizinho(indice, argumento);
+                especies[destino] = especies[indice];
+                especies[indice] = Campo.ESPECIE_VAZIA;
+                break;
+            case MORTE:
+                especies[indice] = Campo.ESPECIE_VAZIA;
+                break;
+            default:
+                // Abates não alteram o campo.
+                break;
+        }
+    }
+
+    /**
+     * Acrescenta um evento ao lote da thread atual.
+     */
+    private void acrescentar(int tipo, int argumento, int indice)
+    {
+        Lote lote = loteDaThread.get();
+        if(lote == null) {
+            lote = pendentes;
+        }
+        lote.acrescentar((tipo << 30) | (argumento << BITS_POSICAO) | indice);
+    }
+
+    /**
+     * Acrescenta os eventos de um lote ao final do registro e esvazia o lote.
+     */
+    private void incorporar(Lote lote)
+    {
+        int copiados = 0;
+        while(copiados < lote.quantidade) {
+            int posicao = (int) (quantidade % TAMANHO_BLOCO);
+            if(posicao == 0) {
+                blocos.add(new int[TAMANHO_BLOCO]);
+            }
+            int parte = Math.min(lote.quantidade - copiados, TAMANHO_BLOCO - posicao);
+            System.arraycopy(lote.eventos, copiados, blocos.get(blocos.size() - 1), posicao, parte);
+            copiados += parte;
+            quantidade += parte;
+        }
+        lote.quantidade = 0;
+    }
+
+    /**
+     * Descarta os eventos de todos os lotes.
+     */
+    private void descartarLotes()
+    {
+        pendentes.quantidade = 0;
+        for(Lote lote : lotes) {
+            lote.quantidade = 0;
+        }
+    }
+
+    /**
+     * @return A direção (de 0 a 7) em que destino é vizinho de origem, ou -1 se não for.
+     */
+    private int direcao(int origem, int destino)
+    {
+        int linha = destino / largura - origem / largura;
+        int coluna = destino % largura - origem % largura;
+        if(linha < -1 || linha > 1 || coluna < -1 || coluna > 1) {
+            return -1;
+        }
+        return DIRECAO[(linha + 1) * 3 + coluna + 1];
+    }
+
+    /**
+     * @return A posição vizinha de indice na direção fornecida.
+     */
+    private int vizinho(int indice, int direcao)
+    {
+        return indice + DESLOCAMENTO_LINHA[direcao] * largura + DESLOCAMENTO_COLUNA[direcao];
+    }
+
+    /**
+     * Os eventos de um passo ainda não incorporados ao registro, na ordem
+     * em que foram informados. Cada lote é usado por uma thread de cada vez.
+     */
+    private static class Lote
+    {
+        // Os eventos, nas posições de 0 a quantidade - 1.
+        private int[] eventos = new int[1024];
+        private int quantidade;
+
+        /**
+         * Acrescenta um evento ao final do lote.
+         */
+        private void acrescentar(int evento)
+        {
+            if(quantidade == eventos.length) {
+                eventos = Arrays.copyOf(eventos, eventos.length * 2);
+            }
+            eventos[quantidade++] = evento;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Desenha o conteúdo do campo, a partir dos quadros publicados pelo simulador,
+ * em uma imagem com um pixel por posição.
+ * As cores são escritas diretamente no arranjo de pixels da imagem, a partir
+ * de uma paleta indexada pelo código de espécie do campo, sem nenhuma chamada
+ * de desenho por posição. Quem exibe a imagem (como a VisaoDeGrade) a amplia
+ * de uma só vez para o tamanho desejado.
+ * 
+ * A imagem pode ser usada fora da tela (por exemplo, em medições de desempenho).
+ * 
+ * @version 2025.05.24
+ */
+public class RenderizadorDeCampo
+{
+    // Cores usadas para localizações vazias.
+    private static final Color COR_VAZIA = Color.white;
+
+    // Cor usada para objetos que não têm cor definida.
+    private static final Color COR_DESCONHECIDA = Color.gray;
+
+    // Um mapa para armazenar cores para participantes na simulação.
+    private Map<Class<?>, Color> cores;
+    // A cor (RGB) de cada código de espécie do campo; null se precisar ser recalculada.
+    private int[] paleta;
+    // A imagem com um pixel por posição do campo e seus pixels.
+    private BufferedImage imagem;
+    private int[] pixels;
+    // O número do último quadro desenhado.
+    private int numeroUltimoQuadro;
+
+    /**
+     * Cria um renderizador sem nenhuma cor definida.
+     */
+    public RenderizadorDeCampo()
+    {
+        cores = new LinkedHashMap<>();
+        numeroUltimoQuadro = -1;
+    }
+
+    /**
+     * Define uma cor a ser usada para uma classe específica de animal.
+     * @param classeAnimal A classe do animal.
+     * @param cor A cor a ser usada para a classe fornecida.
+     */
+    public void definirCor(Class<?> classeAnimal, Color cor)
+    {
+        cores.put(classeAnimal, cor);
+        paleta = null;
+    }
+
+    /**
+     * @return A cor a ser usada para uma classe específica de animal.
+     */
+    public Color obterCor(Class<?> classeAnimal)
+    {
+        Color cor = cores.get(classeAnimal);
+        if(cor == null) {
+            // nenhuma cor definida para esta classe
+            return COR_DESCONHECIDA;
+        }
+        else {
+            return cor;
+        }
+    }
+
+    /**
+     * @return A imagem com o último desenho do campo (um pixel por posição),
+     *         ou null se nada foi desenhado ainda.
+     */
+    public BufferedImage obterImagem()
+    {
+        return imagem;
+    }
+
+    /**
+     * Atualiza a imagem com o estado mostrado no quadro. Se a imagem tiver o
+     * desenho do quadro imediatamente anterior, apenas as posições alteradas
+     * são redesenhadas; caso contrário (primeiro quadro, quadros descartados,
+     * mudança de tamanho ou de cores), o quadro é desenhado por completo.
+     * @param quadro O quadro a ser desenhado.
+     */
+    public void atualizar(Quadro quadro)
+    {
+        boolean consecutivo = quadro.obterNumero() == numeroUltimoQuadro + 1;
+        if(prepararImagem(quadro) || !consecutivo) {
+            desenhar(quadro);
+        }
+        else {
+            desenharAlteracoes(quadro);
+        }
+    }
+
+    /**
+     * Desenha todas as posições do quadro na imagem.
+     * @param quadro O quadro a ser desenhado.
+     */
+    public void desenhar(Quadro quadro)
+    {
+        prepararImagem(quadro);
+        int[] cores = paleta;
+        int[] destino = pixels;
+        for(int indice = 0; indice < destino.length; indice++) {
+            destino[indice] = cores[quadro.obterEspecieEm(indice)];
+        }
+        numeroUltimoQuadro = quadro.obterNumero();
+    }
+
+    /**
+     * Desenha na imagem apenas as posições alteradas desde o quadro anterior.
+     * O custo é proporcional à atividade do passo, e não à área do campo.
+     * A imagem deve conter o desenho do quadro anterior.
+     * @param quadro O quadro a ser desenhado.
+     */
+    public void desenharAlteracoes(Quadro quadro)
+    {
+        prepararImagem(quadro);
+        int[] cores = paleta;
+        int[] destino = pixels;
+        for(int indice = quadro.proximaPosicaoAlterada(0); indice >= 0;
+                indice = quadro.proximaPosicaoAlterada(indice + 1)) {
+            destino[indice] = cores[quadro.obterEspecieEm(indice)];
+        }
+        numeroUltimoQuadro = quadro.obterNumero();
+    }
+
+    /**
+     * Garante que a imagem tenha o tamanho do campo do quadro e que a paleta
+     * inclua todas as espécies registradas nele.
+     * @return true se a imagem ou a paleta mudaram e o campo precisa ser
+     *         desenhado por completo.
+     */
+    private boolean prepararImagem(Quadro quadro)
+    {
+        boolean mudou = false;
+        if(imagem == null || imagem.getWidth() != quadro.obterLargura()
+                          || imagem.getHeight() != quadro.obterComprimento()) {
+            imagem = new BufferedImage(quadro.obterLargura(), quadro.obterComprimento(),
+                                       BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) imagem.getRaster().getDataBuffer()).getData();
+            mudou = true;
+        }
+        if(paleta == null || paleta.length != quadro.obterNumeroEspecies() + 1) {
+            int[] novaPaleta = new int[quadro.obterNumeroEspecies() + 1];
+            novaPaleta[Campo.ESPECIE_VAZIA] = COR_VAZIA.getRGB();
+            for(short especie = 1; especie < novaPaleta.length; especie++) {
+                novaPaleta[especie] = obterCor(quadro.obterClasseEspecie(especie)).getRGB();
+            }
+            paleta = novaPaleta;
+            mudou = true;
+        }
+        return mudou;
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * Guarda os animais mortos de cada espécie para que sejam reaproveitados em
+ * novos nascimentos, em vez de criar um objeto novo a cada vez. Os coelhos,
+ * em especial, vivem pouco e têm muitos filhotes, então a simulação cria e
+ * descarta uma grande quantidade deles a cada passo.
+ *
+ * O simulador devolve ao reservatório os animais que removeu da sua lista
+ * (quando ninguém mais os referencia), e as espécies retiram deles ao criar
+ * filhotes (veja Raposa.criar e Coelho.criar). Os métodos são sincronizados
+ * porque o motor paralelo cria filhotes em várias threads.
+ *
+ * @version 2025.05.24
+ */
+public class ReservatorioDeAnimais
+{
+    // As espécies que já têm uma pilha, e a pilha de animais mortos de cada uma.
+    private Class<?>[] especies;
+    private ListaDeAnimais[] pilhas;
+
+    /**
+     * Cria um reservatório vazio.
+     */
+    public ReservatorioDeAnimais()
+    {
+        especies = new Class<?>[0];
+        pilhas = new ListaDeAnimais[0];
+    }
+
+    /**
+     * Retira um animal morto da espécie fornecida, se houver algum.
+     * O animal deve ser reinicializado antes de voltar à simulação.
+     * @param especie A classe do animal.
+     * @return Um animal morto da espécie, ou null se não houver nenhum.
+     */
+    public synchronized Animal retirar(Class<?> especie)
+    {
+        for(int i = 0; i < especies.length; i++) {
+            if(especies[i] == especie) {
+                ListaDeAnimais pilha = pilhas[i];
+                int tamanho = pilha.size();
+                if(tamanho == 0) {
+                    return null;
+                }
+                Animal animal = pilha.get(tamanho - 1);
+                pilha.truncar(tamanho - 1);
+                return animal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Guarda um animal morto para ser reaproveitado. Quem devolve o animal
+     * garante que ele não é mais referenciado pela simulação.
+     * @param animal O animal morto.
+     */
+    public synchronized void devolver(Animal animal)
+    {
+        Class<?> especie = animal.getClass();
+        for(int i = 0; i < especies.length; i++) {
+            if(especies[i] == especie) {
+                pilhas[i].add(animal);
+                return;
+            }
+        }
+        int quantidade = especies.length;
+        especies = Arrays.copyOf(especies, quantidade + 1);
+        pilhas = Arrays.copyOf(pilhas, quantidade + 1);
+        especies[quantidade] = especie;
+        pilhas[quantidade] = new ListaDeAnimais(64);
+        pilhas[quantidade].add(animal);
+    }
+
+    /**
+     * @param especie A classe do animal.
+     * @return Quantos animais mortos da espécie estão guardados.
+     */
+    public synchronized int obterQuantidade(Class<?> especie)
+    {
+        for(int i = 0; i < especies.length; i++) {
+            if(especies[i] == especie) {
+                return pilhas[i].size();
+            }
+        }
+        return 0;
+    }
+}
@@ -1,6 +1,9 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Iterator;
+import jdk.jfr.FlightRecorder;
 
 /**
  * Um simulador simples de predador-presa, baseado em um campo retangular contendo 
@@ -17,15 +20,47 @@ public class Simulador
     private static final int LARGURA_PADRAO = 120;
     // O comprimento padrão da grade.
     private static final int COMPRIMENTO_PADRAO = 80;
+    // De quantos em quantos passos o registro de eventos das visões guarda um quadro-chave.
+    private static final int INTERVALO_QUADROS_CHAVE = 50;
+    // Quantos passos tem uma simulação longa.
+    public static final int PASSOS_SIMULACAO_LONGA = 4000;
+    // As causas de morte (values() cria um arranjo novo a cada chamada).
+    private static final CausaDeMorte[] CAUSAS = CausaDeMorte.values();
 
     // Lista de animais no campo.
-    private List<Animal> animais;
+    private ListaDeAnimais animais;
+    // Os animais nascidos durante o passo atual (reutilizada a cada passo).
+    private ListaDeAnimais novosAnimais;
     // O estado atual do campo.
     private Campo campo;
+    // Animais mortos, reaproveitados pelo campo nos nascimentos.
+    private ReservatorioDeAnimais reservatorio;
     // O passo atual da simulação.
     private int passo;
     // Visões gráficas da simulação.
     private List<VisaoSimulador> visoes;
+    // Observadores que recebem todos os passos (por exemplo, gravadores de séries).
+    private List<ObservadorDePassos> observadores;
+    // Registro dos eventos da execução atual (null se não estiverem sendo registrados).
+    private RegistroDeEventos registroDeEventos;
+    // Estatísticas usadas para decidir se a simulação ainda é viável.
+    private EstatisticasCampo estatisticas;
+    // Motor que executa os passos em paralelo (null para execução sequencial).
+    private MotorParalelo motorParalelo;
+    // Motor que guarda os animais em arranjos (null se estiverem na lista de animais).
+    private MotorDeArranjos motorDeArranjos;
+    // Gerador aleatório usado pela thread que executa a simulação.
+    private GeradorPorContador gerador;
+    // Semente da execução atual, sorteada a cada reinício da simulação.
+    private long sementeDaExecucao;
+    // Número do último quadro publicado para as visões.
+    private int numeroQuadro;
+    // Métricas da execução (durações das fases, nascimentos e mortes).
+    private MetricasSimulacao metricas;
+    // Mortes de cada causa no passo atual (reutilizado a cada passo).
+    private int[] mortesNoPasso;
+    // A thread que executa a simulação a pedido das visões (null sem visões).
+    private ExecutorDeSimulacao executor;
     
     /**
      * Constrói um campo de simulação com tamanho padrão.
@@ -41,6 +76,52 @@ public class Simulador
      * @param largura A largura do campo. Deve ser maior que zero.
      */
     public Simulador(int comprimento, int largura)
+    {
+        this(comprimento, largura, true);
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho fornecido, com ou sem as
+     * visões gráficas. Sem as visões, a simulação pode ser executada em
+     * máquinas sem tela e sem o custo de redesenhar a grade a cada passo.
+     * @param comprimento O comprimento do campo. Deve ser maior que zero.
+     * @param largura A largura do campo. Deve ser maior que zero.
+     * @param comVisoes Se verdadeiro, cria as visões de grade e de gráfico.
+     */
+    public Simulador(int comprimento, int largura, boolean comVisoes)
+    {
+        this(comprimento, largura, comVisoes, new Parametros());
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho e os parâmetros fornecidos.
+     * A semente da primeira execução vem do randomizador compartilhado,
+     * como em reiniciar().
+     * @param comprimento O comprimento do campo. Deve ser maior que zero.
+     * @param largura A largura do campo. Deve ser maior que zero.
+     * @param comVisoes Se verdadeiro, cria as visões de grade e de gráfico.
+     * @param parametros Os parâmetros dos animais e das densidades iniciais.
+     */
+    public Simulador(int comprimento, int largura, boolean comVisoes, Parametros parametros)
+    {
+        this(comprimento, largura, comVisoes, parametros, Randomizador.obterRandom().nextLong());
+    }
+
+    /**
+     * Cria um campo de simulação com o tamanho, os parâmetros e a semente
+     * fornecidos. A população inicial é criada uma única vez, a partir da
+     * semente, sem usar o randomizador compartilhado. Cada simulador usa
+     * apenas seus próprios parâmetros e seu próprio gerador aleatório, então
+     * vários simuladores sem visões podem ser executados ao mesmo tempo, em
+     * threads diferentes (veja VarreduraDeParametros).
+     * @param comprimento O comprimento do campo. Deve ser maior que zero.
+     * @param largura A largura do campo. Deve ser maior que zero.
+     * @param comVisoes Se verdadeiro, cria as visões de grade e de gráfico.
+     * @param parametros Os parâmetros dos animais e das densidades iniciais.
+     * @param semente A semente da primeira execução (veja reiniciar(long)).
+     */
+    public Simulador(int comprimento, int largura, boolean comVisoes, Parametros parametros,
+                     long semente)
     {
         if(largura <= 0 || comprimento <= 0) {
             System.out.println("As dimensões devem ser >= zero.");
@@ -49,31 +130,54 @@ public class Simulador
             largura = LARGURA_PADRAO;
         }
         
-        animais = new ArrayList<>();
-        campo = new Campo(comprimento, largura);
+        // Nunca há mais animais (nem nascimentos em um passo) do que posições,
+        // então as listas não precisam crescer durante a simulação.
+        animais = new ListaDeAnimais(comprimento * largura);
+        novosAnimais = new ListaDeAnimais(comprimento * largura);
+        campo = new Campo(comprimento, largura, parametros);
+        reservatorio = new ReservatorioDeAnimais();
+        campo.definirReservatorio(reservatorio);
+        estatisticas = new EstatisticasCampo();
+        gerador = new GeradorPorContador(0);
 
         visoes = new ArrayList<>();
+        observadores = new ArrayList<>();
+        metricas = new MetricasSimulacao();
+        mortesNoPasso = new int[CAUSAS.length];
+        observadores.add(metricas);
         
-        VisaoSimulador visao = new VisaoDeGrade(comprimento, largura, this);
-        GeradorDePopulacoes.definirCores(visao);
-        visoes.add(visao);
+        if(comVisoes) {
+            VisaoSimulador visao = new VisaoDeGrade(comprimento, largura, this);
+            GeradorDePopulacoes.definirCores(visao);
+            visoes.add(visao);
 
-        visao = new VisaoDeGrafico(800, 400, 500);
-        GeradorDePopulacoes.definirCores(visao);
-        visoes.add(visao);
+            visao = new VisaoDeGrafico(800, 400, 500);
+            GeradorDePopulacoes.definirCores(visao);
+            visoes.add(visao);
+
+            // Permite que a visão de grade volte a qualquer passo já simulado.
+            registrarEventos(INTERVALO_QUADROS_CHAVE);
+            // Permite acompanhar a simulação pelo JConsole ou pelo VisualVM.
+            metricas.registrarNoJmx();
+        }
         
         // Configura um ponto de partida válido.
-        reiniciar();
+        reiniciar(semente);
+
+        if(comVisoes) {
+            // A partir daqui, só a thread do executor altera o modelo.
+            executor = new ExecutorDeSimulacao(this);
+        }
     }
     
     /**
      * Executa a simulação a partir de seu estado atual por um período razoavelmente longo 
-     * (4000 passos).
+     * (PASSOS_SIMULACAO_LONGA passos).
      */
     public void executarSimulacaoLonga()
     {
         // altere o parâmetro de atraso se quiser executar mais lentamente
-        simular(4000, 0);
+        simular(PASSOS_SIMULACAO_LONGA, 0);
     }
     
     /**
@@ -83,12 +187,22 @@ public class Simulador
      */
     public void simular(int numPassos, int atraso)
     {
-        for(int passo = 1; passo <= numPassos && visoes.get(0).ehViavel(campo); passo++) {
+        for(int passo = 1; passo <= numPassos && ehViavel(); passo++) {
             simularUmPasso();
             if (atraso > 0) {
                 pausar(atraso);   
             }
         }
+        concluirExecucao();
+    }
+
+    /**
+     * Conclui uma sequência de passos: garante que as visões mostrem o estado
+     * final e reabilita suas opções.
+     */
+    public void concluirExecucao()
+    {
+        atualizarVisoes(true);
         reabilitarOpcoesVisoes();
     }
     
@@ -100,47 +214,512 @@ public class Simulador
     {
         passo++;
 
-        // Fornece espaço para os animais recém-nascidos.
-        List<Animal> novosAnimais = new ArrayList<>(); 
-        // Permite que todos os ns ajam.
-        for(Iterator<Animal> it = animais.iterator(); it.hasNext(); ) {
-            Animal animal = it.next();
-            animal.agir(novosAnimais);
-            if(!animal.estaVivo()) {
-                it.remove();
+        int animaisAntesDaAcao = obterQuantidadeDeAnimais();
+        EventoFaseDoPasso acao = iniciarEvento();
+        long inicio = System.nanoTime();
+        if(motorDeArranjos != null) {
+            // Os animais estão nos arranjos do motor.
+            motorDeArranjos.agir(sementeDaExecucao, passo);
+        }
+        else {
+            agirComObjetos();
+        }
+        long fimDaAcao = System.nanoTime();
+        encerrarEvento(acao, MetricasSimulacao.Fase.AGIR, animaisAntesDaAcao);
+
+        int animaisAntesDoCenso = obterQuantidadeDeAnimais();
+        EventoFaseDoPasso censo = iniciarEvento();
+        if(motorDeArranjos != null) {
+            motorDeArranjos.atualizarPopulacao(estatisticas);
+            metricas.registrarNascimentos(motorDeArranjos.obterNascimentosNoPasso());
+            for(CausaDeMorte causa : CAUSAS) {
+                metricas.registrarMortes(causa, motorDeArranjos.obterMortesNoPasso(causa));
             }
         }
-        
-        // Adiciona os animais recém-nascidos às listas principais.
-        animais.addAll(novosAnimais);
+        else {
+            atualizarPopulacao();
+        }
+        long fimDoCenso = System.nanoTime();
+        encerrarEvento(censo, MetricasSimulacao.Fase.CENSO, animaisAntesDoCenso);
 
+        metricas.registrarDuracao(MetricasSimulacao.Fase.AGIR, fimDaAcao - inicio);
+        metricas.registrarDuracao(MetricasSimulacao.Fase.CENSO, fimDoCenso - fimDaAcao);
+
+        notificarObservadores();
         atualizarVisoes();
     }
+
+    /**
+     * @return Quantos animais há na simulação, inclusive os filhotes e os
+     *         mortos do passo atual que ainda não foram removidos.
+     */
+    private int obterQuantidadeDeAnimais()
+    {
+        if(motorDeArranjos != null) {
+            return motorDeArranjos.obterQuantidade();
+        }
+        return animais.size() + novosAnimais.size();
+    }
+
+    /**
+     * Inicia o evento de uma fase do passo no Java Flight Recorder. Enquanto
+     * o Flight Recorder não tiver sido iniciado, nenhum evento pode ser
+     * gravado; então nada é feito, e as classes dos eventos nem são
+     * carregadas (carregá-las custa algumas centenas de milissegundos).
+     * @return O evento iniciado, ou null.
+     */
+    private EventoFaseDoPasso iniciarEvento()
+    {
+        if(!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        EventoFaseDoPasso evento = new EventoFaseDoPasso();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Encerra o evento de uma fase do passo e, se alguma gravação do Flight
+     * Recorder o pedir, preenche e grava o evento.
+     * @param evento O evento (veja iniciarEvento), ou null.
+     * @param fase A fase medida.
+     * @param animais Quantos animais havia no início da fase.
+     */
+    private void encerrarEvento(EventoFaseDoPasso evento, MetricasSimulacao.Fase fase, int animais)
+    {
+        if(evento == null) {
+            return;
+        }
+        evento.end();
+        if(evento.shouldCommit()) {
+            evento.fase = fase.obterNome();
+            evento.passo = passo;
+            evento.animais = animais;
+            evento.coelhos = estatisticas.obterContagemPopulacao(campo, Coelho.class);
+            evento.raposas = estatisticas.obterContagemPopulacao(campo, Raposa.class);
+            evento.commit();
+        }
+    }
+
+    /**
+     * Faz com que os animais da lista de animais ajam, com o motor paralelo
+     * ou sequencialmente. Os recém-nascidos ficam em novosAnimais.
+     */
+    private void agirComObjetos()
+    {
+        novosAnimais.clear();
+        if(motorParalelo != null) {
+            motorParalelo.agir(animais, novosAnimais, sementeDaExecucao, passo);
+        }
+        else {
+            Randomizador.vincular(gerador);
+            try {
+                // Permite que todos os animais ajam.
+                for(int i = 0; i < animais.size(); i++) {
+                    Animal animal = animais.get(i);
+                    if(animal.estaVivo()) {
+                        // Os sorteios de cada animal dependem apenas do passo
+                        // e da posição em que ele começa o passo.
+                        gerador.posicionar(sementeDaExecucao, passo, 
+                                           campo.obterIndice(animal.obterLocalizacao()));
+                        animal.agir(novosAnimais);
+                    }
+                }
+            }
+            finally {
+                Randomizador.desvincular();
+            }
+        }
+    }
+
+    /**
+     * Remove da lista de animais os que morreram neste passo (inclusive os
+     * que foram comidos depois de agir) e adiciona os recém-nascidos que
+     * sobreviveram, mantendo as contagens da população e as métricas
+     * atualizadas. Os vivos são copiados para o início da lista, na mesma
+     * ordem, em uma única passada, e os mortos vão para o reservatório, para
+     * serem reaproveitados.
+     */
+    private void atualizarPopulacao()
+    {
+        Arrays.fill(mortesNoPasso, 0);
+        int vivos = 0;
+        for(int i = 0; i < animais.size(); i++) {
+            Animal animal = animais.get(i);
+            if(animal.estaVivo()) {
+                animais.set(vivos++, animal);
+            }
+            else {
+                estatisticas.decrementarContagem(animal.getClass());
+                mortesNoPasso[animal.obterCausaDaMorte().ordinal()]++;
+                reservatorio.devolver(animal);
+            }
+        }
+        animais.truncar(vivos);
+        for(int i = 0; i < novosAnimais.size(); i++) {
+            Animal filhote = novosAnimais.get(i);
+            if(filhote.estaVivo()) {
+                estatisticas.incrementarContagem(filhote.getClass());
+                animais.add(filhote);
+            }
+            else {
+                mortesNoPasso[filhote.obterCausaDaMorte().ordinal()]++;
+                reservatorio.devolver(filhote);
+            }
+        }
+        metricas.registrarNascimentos(novosAnimais.size());
+        novosAnimais.clear();
+        for(int i = 0; i < CAUSAS.length; i++) {
+            metricas.registrarMortes(CAUSAS[i], mortesNoPasso[i]);
+        }
+    }
+        
+    /**
+     * Passa a executar os passos em paralelo, dividindo o campo em blocos.
+     * Para uma mesma semente e um mesmo tamanho de bloco, o resultado não
+     * depende do número de threads. Os valores sorteados por cada animal são
+     * os mesmos da execução sequencial, mas a ordem em que os animais agem
+     * muda, e por isso a simulação evolui de forma diferente.
+     * @param threads Quantas threads usar.
+     * @param alturaBloco Quantas linhas do campo cada bloco tem (pelo menos 2).
+     * @param larguraBloco Quantas colunas do campo cada bloco tem (pelo menos 2).
+     */
+    public void usarMotorParalelo(int threads, int alturaBloco, int larguraBloco)
+    {
+        usarMotorSequencial();
+        motorParalelo = new MotorParalelo(campo, threads, alturaBloco, larguraBloco);
+    }
+
+    /**
+     * Passa a guardar o estado dos animais em arranjos de tipos primitivos,
+     * executando os passos com laços sobre esses arranjos (veja MotorDeArranjos).
+     * Para uma mesma semente, o resultado é o mesmo da execução sequencial.
+     * Enquanto este motor estiver em uso, o campo guarda apenas as espécies
+     * de cada posição, e não os objetos dos animais.
+     */
+    public void usarMotorDeArranjos()
+    {
+        usarMotorSequencial();
+        motorDeArranjos = new MotorDeArranjos(campo);
+        motorDeArranjos.importar(animais, reservatorio);
+    }
+
+    /**
+     * Volta a executar os passos sequencialmente, em uma única thread, com
+     * um objeto para cada animal.
+     */
+    public void usarMotorSequencial()
+    {
+        if(motorParalelo != null) {
+            motorParalelo.encerrar();
+            motorParalelo = null;
+        }
+        if(motorDeArranjos != null) {
+            motorDeArranjos.exportar(animais);
+            motorDeArranjos = null;
+        }
+    }
         
+    /**
+     * Acrescenta um observador, que passa a ser informado do fim de cada passo.
+     * @param observador O observador.
+     */
+    public void adicionarObservador(ObservadorDePassos observador)
+    {
+        observadores.add(observador);
+    }
+
+    /**
+     * Remove um observador e o encerra.
+     * @param observador O observador.
+     */
+    public void removerObservador(ObservadorDePassos observador)
+    {
+        if(observadores.remove(observador)) {
+            observador.encerrar();
+        }
+    }
+
+    /**
+     * Passa a registrar os eventos da simulação (a partir do passo atual),
+     * para que os passos simulados possam ser reconstruídos depois sem
+     * executar o modelo novamente (veja RegistroDeEventos).
+     * @param intervaloQuadrosChave De quantos em quantos passos guardar um quadro-chave.
+     * @return O registro de eventos.
+     */
+    public RegistroDeEventos registrarEventos(int intervaloQuadrosChave)
+    {
+        pararRegistroDeEventos();
+        registroDeEventos = new RegistroDeEventos(campo, intervaloQuadrosChave);
+        campo.definirRegistroDeEventos(registroDeEventos);
+        observadores.add(registroDeEventos);
+        registroDeEventos.execucaoIniciada(passo, campo, estatisticas);
+        return registroDeEventos;
+    }
+
+    /**
+     * Deixa de registrar os eventos da simulação, descartando os já registrados.
+     */
+    public void pararRegistroDeEventos()
+    {
+        if(registroDeEventos != null) {
+            campo.definirRegistroDeEventos(null);
+            removerObservador(registroDeEventos);
+            registroDeEventos = null;
+        }
+    }
+
+    /**
+     * @return O registro de eventos da simulação, ou null se os eventos não
+     *         estiverem sendo registrados.
+     */
+    public RegistroDeEventos obterRegistroDeEventos()
+    {
+        return registroDeEventos;
+    }
+
+    /**
+     * @return O executor que simula os passos a pedido das visões (veja
+     *         ExecutorDeSimulacao), ou null se o simulador não tiver visões.
+     */
+    public ExecutorDeSimulacao obterExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * @return As métricas da execução (veja MetricasSimulacao).
+     */
+    public MetricasSimulacao obterMetricas()
+    {
+        return metricas;
+    }
+
     /**
      * Reinicia a simulação para uma posição inicial.
      */
     public void reiniciar()
+    {
+        Parametros parametros = campo.obterParametros();
+        reiniciar(parametros.obterProbabilidadeCriacaoRaposa(), 
+                  parametros.obterProbabilidadeCriacaoCoelho());
+    }
+
+    /**
+     * Reinicia a simulação para uma posição inicial determinada apenas pela
+     * semente fornecida (e pelos parâmetros), sem usar o randomizador compartilhado.
+     * @param semente A semente da nova execução.
+     */
+    public void reiniciar(long semente)
+    {
+        Parametros parametros = campo.obterParametros();
+        reiniciar(parametros.obterProbabilidadeCriacaoRaposa(), 
+                  parametros.obterProbabilidadeCriacaoCoelho(), semente);
+    }
+
+    /**
+     * Reinicia a simulação para uma posição inicial com as densidades fornecidas.
+     * @param probabilidadeRaposa A probabilidade de uma raposa ser criada em cada posição.
+     * @param probabilidadeCoelho A probabilidade de um coelho ser criado em cada posição.
+     */
+    public void reiniciar(double probabilidadeRaposa, double probabilidadeCoelho)
+    {
+        // A semente de cada execução vem do gerador compartilhado, de forma que
+        // reiniciar o randomizador repete exatamente as mesmas execuções.
+        reiniciar(probabilidadeRaposa, probabilidadeCoelho, Randomizador.obterRandom().nextLong());
+    }
+
+    /**
+     * Reinicia a simulação com as densidades e a semente fornecidas.
+     */
+    private void reiniciar(double probabilidadeRaposa, double probabilidadeCoelho, long semente)
     {
         passo = 0;
-        animais.clear();
+        descartarAnimais();
         for (VisaoSimulador visao : visoes) {
             visao.reiniciar();
         }
 
-        GeradorDePopulacoes.povoar(campo, animais);
+        sementeDaExecucao = semente;
+        gerador.posicionar(sementeDaExecucao, 0, -1);
+        Randomizador.vincular(gerador);
+        try {
+            GeradorDePopulacoes.povoar(campo, animais, probabilidadeRaposa, probabilidadeCoelho);
+        }
+        finally {
+            Randomizador.desvincular();
+        }
+
+        // A partir daqui as contagens são mantidas a cada nascimento e morte.
+        estatisticas.reiniciar();
+        for(Animal animal : animais) {
+            estatisticas.incrementarContagem(animal.getClass());
+        }
+        estatisticas.finalizarContagem();
+        if(motorDeArranjos != null) {
+            motorDeArranjos.importar(animais, reservatorio);
+        }
         
-        atualizarVisoes();
+        for(ObservadorDePassos observador : observadores) {
+            observador.execucaoIniciada(passo, campo, estatisticas);
+        }
+        atualizarVisoes(true);
         reabilitarOpcoesVisoes();
     }
 
     /**
-     * Atualiza todas as visões existentes.
+     * Esvazia a lista de animais, devolvendo todos ao reservatório. O campo
+     * não é limpo animal por animal: quem coloca os novos animais limpa o
+     * campo inteiro de uma vez antes.
+     */
+    private void descartarAnimais()
+    {
+        for(int i = 0; i < animais.size(); i++) {
+            Animal animal = animais.get(i);
+            animal.descartar();
+            reservatorio.devolver(animal);
+        }
+        animais.clear();
+    }
+
+    /**
+     * Grava o estado atual da simulação (animais, passo e semente da execução)
+     * em um arquivo, para que ela possa ser continuada depois com carregarEstado.
+     * @param caminho O arquivo a ser gravado.
+     * @throws IOException Se não for possível gravar o arquivo.
+     */
+    public void salvarEstado(Path caminho) throws IOException
+    {
+        if(motorDeArranjos == null) {
+            new ArquivoDeEstado(caminho).gravar(campo, animais, passo, sementeDaExecucao);
+            return;
+        }
+        // Cria os objetos apenas durante a gravação.
+        motorDeArranjos.exportar(animais);
+        try {
+            new ArquivoDeEstado(caminho).gravar(campo, animais, passo, sementeDaExecucao);
+        }
+        finally {
+            motorDeArranjos.importar(animais, reservatorio);
+        }
+    }
+
+    /**
+     * Substitui o estado atual da simulação por um estado gravado com
+     * salvarEstado. A partir dele, a simulação evolui exatamente como a
+     * simulação que foi gravada teria evoluído (com o mesmo motor e os
+     * mesmos parâmetros).
+     * @param caminho O arquivo a ser lido. O campo gravado deve ter as
+     *                mesmas dimensões do campo deste simulador.
+     * @throws IOException Se não for possível ler o arquivo ou se ele não for válido.
+     *                     Nesse caso, o estado da simulação é indefinido.
+     */
+    public void carregarEstado(Path caminho) throws IOException
+    {
+        descartarAnimais();
+        ArquivoDeEstado arquivo = new ArquivoDeEstado(caminho);
+        arquivo.ler(campo, animais);
+        passo = arquivo.obterPasso();
+        sementeDaExecucao = arquivo.obterSemente();
+
+        estatisticas.reiniciar();
+        for(Animal animal : animais) {
+            estatisticas.incrementarContagem(animal.getClass());
+        }
+        estatisticas.finalizarContagem();
+        if(motorDeArranjos != null) {
+            motorDeArranjos.importar(animais, reservatorio);
+        }
+
+        for (VisaoSimulador visao : visoes) {
+            visao.reiniciar();
+        }
+        for(ObservadorDePassos observador : observadores) {
+            observador.execucaoIniciada(passo, campo, estatisticas);
+        }
+        atualizarVisoes(true);
+    }
+
+    /**
+     * Determina se a simulação ainda é viável, independentemente de haver
+     * visões associadas ao simulador. As contagens são mantidas a cada
+     * nascimento e morte, então nenhuma varredura do campo é necessária.
+     * @return true Se houver mais de uma espécie viva.
+     */
+    public boolean ehViavel()
+    {
+        return estatisticas.ehViavel(campo);
+    }
+
+    /**
+     * @return As estatísticas da população, atualizadas a cada passo.
+     */
+    public EstatisticasCampo obterEstatisticas()
+    {
+        return estatisticas;
+    }
+
+    /**
+     * @return O passo atual da simulação.
+     */
+    public int obterPasso()
+    {
+        return passo;
+    }
+
+    /**
+     * @return O campo da simulação.
+     */
+    public Campo obterCampo()
+    {
+        return campo;
+    }
+
+    /**
+     * Publica o estado atual para as visões, se alguma delas estiver
+     * aguardando um novo quadro.
      */
     private void atualizarVisoes()
     {
+        atualizarVisoes(false);
+    }
+
+    /**
+     * Publica o estado atual para as visões. O quadro só é criado se alguma
+     * visão já tiver exibido o anterior (ou se for obrigatório), de forma que
+     * a simulação segue na sua própria velocidade e as visões exibem apenas
+     * os passos que conseguirem acompanhar.
+     * @param obrigatorio Se verdadeiro, publica o quadro mesmo que nenhuma
+     *                    visão esteja aguardando (por exemplo, ao final de uma execução).
+     */
+    private void atualizarVisoes(boolean obrigatorio)
+    {
+        boolean publicar = obrigatorio && !visoes.isEmpty();
         for (VisaoSimulador visao : visoes) {
-            visao.mostrarStatus(passo, campo);
+            if(visao.aguardandoQuadro()) {
+                publicar = true;
+            }
+        }
+        if(publicar) {
+            EventoFaseDoPasso desenho = iniciarEvento();
+            long inicio = System.nanoTime();
+            numeroQuadro++;
+            Quadro quadro = Quadro.capturar(numeroQuadro, passo, campo, estatisticas);
+            for (VisaoSimulador visao : visoes) {
+                visao.mostrarStatus(quadro);
+            }
+            metricas.registrarDuracao(MetricasSimulacao.Fase.DESENHO, System.nanoTime() - inicio);
+            encerrarEvento(desenho, MetricasSimulacao.Fase.DESENHO, obterQuantidadeDeAnimais());
+        }
+    }
+
+    /**
+     * Informa o passo atual a todos os observadores.
+     */
+    private void notificarObservadores()
+    {
+        for(int i = 0; i < observadores.size(); i++) {
+            observadores.get(i).passoConcluido(passo, campo, estatisticas);
         }
     }
 
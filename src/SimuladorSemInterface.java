@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Ponto de entrada para executar a simulação sem nenhuma visão gráfica.
+ * Útil para execuções longas em servidores sem tela: a simulação roda na
+ * velocidade máxima da CPU e, ao final, são impressos o tamanho da grade,
+ * a semente e a taxa de passos por segundo.
+ * 
+ * Uso: java SimuladorSemInterface [passos] [comprimento] [largura] [semente] [threads]
+ *                                   [estado-inicial] [estado-final] [serie] [metricas]
+ * 
+ * Se o número de threads for maior que zero, os passos são executados pelo
+ * motor paralelo, com blocos de TAMANHO_BLOCO x TAMANHO_BLOCO posições. Se,
+ * em vez do número de threads, for fornecido "arranjos", os passos são
+ * executados pelo motor de arranjos (veja MotorDeArranjos).
+ * Se um estado inicial for fornecido, a simulação continua a partir dele em
+ * vez de começar do zero; se um estado final for fornecido, o estado da
+ * simulação é gravado nele ao final (veja ArquivoDeEstado). Use "-" para
+ * omitir o estado inicial, o final ou a série. Se um arquivo de série for fornecido,
+ * a população de cada passo é gravada nele (veja GravadorDeSerie), em CSV
+ * se o nome terminar com ".csv" e em formato binário caso contrário.
+ * As métricas da simulação podem ser consultadas por JMX durante a execução
+ * (veja MetricasSimulacao); se um arquivo de métricas for fornecido, elas
+ * também são gravadas nele, no formato de texto do Prometheus, a cada
+ * INTERVALO_METRICAS milissegundos.
+ * 
+ * @version 2025.05.24
+ */
+public class SimuladorSemInterface
+{
+    // Valores padrões para os argumentos de linha de comando.
+    private static final int PASSOS_PADRAO = 4000;
+    private static final int COMPRIMENTO_PADRAO = 80;
+    private static final int LARGURA_PADRAO = 120;
+    // Tamanho dos blocos usados pelo motor paralelo.
+    private static final int TAMANHO_BLOCO = 64;
+    // De quanto em quanto tempo (em milissegundos) o arquivo de métricas é gravado.
+    private static final long INTERVALO_METRICAS = 5000;
+
+    public static void main(String[] args)
+    {
+        int passos = args.length > 0 ? Integer.parseInt(args[0]) : PASSOS_PADRAO;
+        int comprimento = args.length > 1 ? Integer.parseInt(args[1]) : COMPRIMENTO_PADRAO;
+        int largura = args.length > 2 ? Integer.parseInt(args[2]) : LARGURA_PADRAO;
+        if(args.length > 3) {
+            Randomizador.definirSemente(Long.parseLong(args[3]));
+        }
+
+        boolean comArranjos = args.length > 4 && args[4].equals("arranjos");
+        int threads = args.length > 4 && !comArranjos ? Integer.parseInt(args[4]) : 0;
+        String estadoInicial = args.length > 5 && !args[5].equals("-") ? args[5] : null;
+        String estadoFinal = args.length > 6 && !args[6].equals("-") ? args[6] : null;
+        String serie = args.length > 7 && !args[7].equals("-") ? args[7] : null;
+        String arquivoMetricas = args.length > 8 ? args[8] : null;
+
+        Simulador simulador = new Simulador(comprimento, largura, false);
+        MetricasSimulacao metricas = simulador.obterMetricas();
+        metricas.registrarNoJmx();
+        if(arquivoMetricas != null) {
+            metricas.iniciarArquivo(Paths.get(arquivoMetricas), INTERVALO_METRICAS);
+        }
+        if(threads > 0) {
+            simulador.usarMotorParalelo(threads, TAMANHO_BLOCO, TAMANHO_BLOCO);
+        }
+        else if(comArranjos) {
+            simulador.usarMotorDeArranjos();
+        }
+        if(estadoInicial != null) {
+            try {
+                long inicioLeitura = System.nanoTime();
+                simulador.carregarEstado(Paths.get(estadoInicial));
+                System.out.printf("Estado carregado de %s (passo %d) em %.3f s%n", estadoInicial,
+                                  simulador.obterPasso(), (System.nanoTime() - inicioLeitura) / 1e9);
+            }
+            catch(IOException e) {
+                System.out.println("Não foi possível carregar o estado: " + e.getMessage());
+                simulador.usarMotorSequencial();
+                return;
+            }
+        }
+
+        GravadorDeSerie gravador = null;
+        if(serie != null) {
+            GravadorDeSerie.Formato formato = serie.endsWith(".csv") ? GravadorDeSerie.Formato.CSV
+                                                                     : GravadorDeSerie.Formato.BINARIO;
+            try {
+                gravador = new GravadorDeSerie(Paths.get(serie), formato, Raposa.class, Coelho.class);
+            }
+            catch(IOException e) {
+                System.out.println("Não foi possível criar a série: " + e.getMessage());
+                simulador.usarMotorSequencial();
+                return;
+            }
+            simulador.adicionarObservador(gravador);
+            // Grava também o passo em que a simulação começa.
+            gravador.passoConcluido(simulador.obterPasso(), simulador.obterCampo(),
+                                    simulador.obterEstatisticas());
+        }
+
+        int passoInicial = simulador.obterPasso();
+        long inicio = System.nanoTime();
+        simulador.simular(passos, 0);
+        long duracao = System.nanoTime() - inicio;
+
+        int passosExecutados = simulador.obterPasso() - passoInicial;
+        double segundos = duracao / 1e9;
+        System.out.println("Grade: " + comprimento + "x" + largura);
+        System.out.println("Semente: " + Randomizador.obterSemente());
+        System.out.println("Threads: " + (threads > 0 ? threads : comArranjos ? "motor de arranjos"
+                                                                             : "execução sequencial"));
+        System.out.println("Passos executados: " + passosExecutados);
+        System.out.printf("Tempo: %.3f s%n", segundos);
+        System.out.printf("Passos/segundo: %.1f%n", passosExecutados / segundos);
+        if(gravador != null) {
+            simulador.removerObservador(gravador);
+        }
+        if(estadoFinal != null) {
+            try {
+                long inicioGravacao = System.nanoTime();
+                simulador.salvarEstado(Paths.get(estadoFinal));
+                System.out.printf("Estado gravado em %s em %.3f s%n", estadoFinal,
+                                  (System.nanoTime() - inicioGravacao) / 1e9);
+            }
+            catch(IOException e) {
+                System.out.println("Não foi possível gravar o estado: " + e.getMessage());
+            }
+        }
+        simulador.usarMotorSequencial();
+        try {
+            metricas.encerrar();
+        }
+        catch(UncheckedIOException e) {
+            System.out.println("Não foi possível gravar as métricas: " + e.getCause().getMessage());
+        }
+    }
+}
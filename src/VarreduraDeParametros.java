@@ -0,0 +1,229 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executa muitas simulações independentes, sem visões, variando os parâmetros
+ * dos animais, e grava um resumo de cada execução em um arquivo CSV.
+ *
+ * Cada combinação dos valores fornecidos é simulada com várias sementes. As
+ * execuções são distribuídas entre todos os processadores: cada uma tem seu
+ * próprio Simulador, com seus próprios Parametros e seu próprio gerador
+ * aleatório, então elas não compartilham nenhum estado. As mesmas sementes
+ * são usadas em todas as combinações, para que as diferenças entre elas
+ * venham dos parâmetros e não do acaso. O arquivo é escrito na ordem das
+ * combinações, independentemente da ordem em que as execuções terminam.
+ *
+ * Uso: java VarreduraDeParametros arquivo.csv passos comprimento largura sementes
+ *          [nome=valor1,valor2,...]...
+ *
+ * Exemplo: java VarreduraDeParametros varredura.csv 1000 80 120 10
+ *              raposa.valorComidaCoelho=6,9,12 coelho.probabilidadeReproducao=0.08,0.12
+ *
+ * Os nomes dos parâmetros são os aceitos por Parametros.definir. A semente
+ * base das sementes de cada execução é a do Randomizador.
+ *
+ * @version 2025.05.24
+ */
+public class VarreduraDeParametros
+{
+    // Os nomes dos parâmetros variados e os valores de cada um.
+    private List<String> nomes;
+    private List<double[]> valores;
+    // A duração máxima e as dimensões de cada simulação.
+    private int passos, comprimento, largura;
+    // As sementes usadas em cada combinação de parâmetros.
+    private long[] sementes;
+
+    public static void main(String[] args)
+    {
+        if(args.length < 5) {
+            System.out.println("Uso: java VarreduraDeParametros arquivo.csv passos comprimento largura "
+                               + "sementes [nome=valor1,valor2,...]...");
+            return;
+        }
+        VarreduraDeParametros varredura = new VarreduraDeParametros(
+            Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]),
+            Integer.parseInt(args[4]), Randomizador.obterSemente());
+        for(int i = 5; i < args.length; i++) {
+            int igual = args[i].indexOf('=');
+            if(igual < 0) {
+                System.out.println("Argumento inválido (esperado nome=valores): " + args[i]);
+                return;
+            }
+            String[] partes = args[i].substring(igual + 1).split(",");
+            double[] valoresParametro = new double[partes.length];
+            for(int j = 0; j < partes.length; j++) {
+                valoresParametro[j] = Double.parseDouble(partes[j]);
+            }
+            try {
+                varredura.variar(args[i].substring(0, igual), valoresParametro);
+            }
+            catch(IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                return;
+            }
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        long inicio = System.nanoTime();
+        try(PrintWriter saida = new PrintWriter(Files.newBufferedWriter(Paths.get(args[0])))) {
+            int execucoes = varredura.executar(threads, saida);
+            System.out.printf("%d execuções em %.1f s, com %d threads.%n",
+                              execucoes, (System.nanoTime() - inicio) / 1e9, threads);
+        }
+        catch(IOException e) {
+            System.out.println("Não foi possível gravar " + args[0] + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cria uma varredura sem nenhum parâmetro variado.
+     * @param passos O número máximo de passos de cada simulação.
+     * @param comprimento O comprimento do campo.
+     * @param largura A largura do campo.
+     * @param numeroSementes Quantas sementes simular para cada combinação.
+     * @param sementeBase A semente da qual as sementes das execuções são derivadas.
+     */
+    public VarreduraDeParametros(int passos, int comprimento, int largura,
+                                 int numeroSementes, long sementeBase)
+    {
+        this.passos = passos;
+        this.comprimento = comprimento;
+        this.largura = largura;
+        nomes = new ArrayList<>();
+        valores = new ArrayList<>();
+        SplittableRandom geradorDeSementes = new SplittableRandom(sementeBase);
+        sementes = new long[numeroSementes];
+        for(int i = 0; i < numeroSementes; i++) {
+            sementes[i] = geradorDeSementes.nextLong();
+        }
+    }
+
+    /**
+     * Acrescenta um parâmetro a ser variado.
+     * @param nome O nome do parâmetro (veja Parametros.definir).
+     * @param valoresParametro Os valores a serem simulados.
+     * @throws IllegalArgumentException Se não houver parâmetro com esse nome
+     *         ou se algum valor for inválido (veja Parametros.definir).
+     */
+    public void variar(String nome, double[] valoresParametro)
+    {
+        // Falha logo se o nome ou algum valor for inválido, antes de iniciar as execuções.
+        Parametros teste = new Parametros();
+        for(double valor : valoresParametro) {
+            teste.definir(nome, valor);
+        }
+        nomes.add(nome);
+        valores.add(valoresParametro.clone());
+    }
+
+    /**
+     * Executa todas as combinações de parâmetros com todas as sementes e
+     * grava uma linha de resumo por execução.
+     * @param threads Quantas simulações executar ao mesmo tempo.
+     * @param saida Onde gravar o CSV.
+     * @return Quantas execuções foram feitas.
+     */
+    public int executar(int threads, PrintWriter saida)
+    {
+        saida.println(String.join(",", nomes) + (nomes.isEmpty() ? "" : ",")
+                      + "semente,passosExecutados,passoExtincao,"
+                      + "mediaRaposas,picoRaposas,finalRaposas,"
+                      + "mediaCoelhos,picoCoelhos,finalCoelhos");
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> linhas = new ArrayList<>();
+            int[] combinacao = new int[nomes.size()];
+            do {
+                Parametros parametros = new Parametros();
+                StringBuilder prefixo = new StringBuilder();
+                for(int i = 0; i < nomes.size(); i++) {
+                    double valor = valores.get(i)[combinacao[i]];
+                    parametros.definir(nomes.get(i), valor);
+                    prefixo.append(valor).append(',');
+                }
+                for(long semente : sementes) {
+                    Parametros copia = parametros.copiar();
+                    String inicio = prefixo.toString();
+                    linhas.add(executor.submit(() -> inicio + simular(copia, semente)));
+                }
+            } while(proximaCombinacao(combinacao));
+
+            for(Future<String> linha : linhas) {
+                saida.println(linha.get());
+            }
+            return linhas.size();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Varredura interrompida.", e);
+        }
+        catch(ExecutionException e) {
+            throw new IllegalStateException("Falha em uma das execuções.", e.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Avança para a próxima combinação de índices de valores (como um odômetro).
+     * @return false Se todas as combinações já tiverem sido geradas.
+     */
+    private boolean proximaCombinacao(int[] combinacao)
+    {
+        for(int i = combinacao.length - 1; i >= 0; i--) {
+            combinacao[i]++;
+            if(combinacao[i] < valores.get(i).length) {
+                return true;
+            }
+            combinacao[i] = 0;
+        }
+        return false;
+    }
+
+    /**
+     * Executa uma simulação até o número máximo de passos ou até uma das
+     * espécies ser extinta.
+     * @return O resumo da execução (as colunas do CSV a partir da semente).
+     */
+    private String simular(Parametros parametros, long semente)
+    {
+        Simulador simulador = new Simulador(comprimento, largura, false, parametros, semente);
+        EstatisticasCampo estatisticas = simulador.obterEstatisticas();
+        Campo campo = simulador.obterCampo();
+
+        long somaRaposas = 0, somaCoelhos = 0;
+        int picoRaposas = 0, picoCoelhos = 0;
+        int raposas = estatisticas.obterContagemPopulacao(campo, Raposa.class);
+        int coelhos = estatisticas.obterContagemPopulacao(campo, Coelho.class);
+        while(simulador.obterPasso() < passos && simulador.ehViavel()) {
+            simulador.simularUmPasso();
+            raposas = estatisticas.obterContagemPopulacao(campo, Raposa.class);
+            coelhos = estatisticas.obterContagemPopulacao(campo, Coelho.class);
+            somaRaposas += raposas;
+            somaCoelhos += coelhos;
+            picoRaposas = Math.max(picoRaposas, raposas);
+            picoCoelhos = Math.max(picoCoelhos, coelhos);
+        }
+
+        int passosExecutados = simulador.obterPasso();
+        String passoExtincao = simulador.ehViavel() ? "" : String.valueOf(passosExecutados);
+        double divisor = Math.max(1, passosExecutados);
+        return String.format(Locale.ROOT, "%d,%d,%s,%.2f,%d,%d,%.2f,%d,%d",
+                             semente, passosExecutados, passoExtincao,
+                             somaRaposas / divisor, picoRaposas, raposas,
+                             somaCoelhos / divisor, picoCoelhos, coelhos);
+    }
+}
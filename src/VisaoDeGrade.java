@@ -3,8 +3,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 import javax.swing.*;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
 /**
  * Uma visão gráfica da grade de simulação.
@@ -18,14 +18,13 @@ import java.util.Map;
  */
 public class VisaoDeGrade extends JFrame implements VisaoSimulador
 {
-    // Cores usadas para localizações vazias.
-    private static final Color COR_VAZIA = Color.white;
-
-    // Cor usada para objetos que não têm cor definida.
-    private static final Color COR_DESCONHECIDA = Color.gray;
+    // Número máximo de quadros exibidos por segundo.
+    private static final int QUADROS_POR_SEGUNDO = 30;
 
     private final String PREFIXO_PASSO = "Passo: ";
     private final String PREFIXO_POPULACAO = "População: ";
+    private final String ROTULO_PAUSAR = "Pausar";
+    private final String ROTULO_CONTINUAR = "Continuar";
 
     private Simulador simulador;
     private JLabel rotuloPasso, populacao;
@@ -35,11 +34,18 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
     private JButton botaoSimularUmPasso;
     private JButton botaoReiniciarSimulacao;
     private JButton botaoReiniciarRandomizador;
+    // Pausam, continuam e param a execução em andamento.
+    private JButton botaoPausar;
+    private JButton botaoParar;
+    // Permite voltar a qualquer passo já simulado (se os eventos forem registrados).
+    private JSlider controlePasso;
+    // Indica que o controle de passo está sendo ajustado pela própria visão.
+    private boolean ajustandoControlePasso;
     
-    // Um mapa para armazenar cores para participantes na simulação.
-    private Map<Class<?>, Color> cores;
-    // Um objeto de estatísticas que calcula e armazena informações da simulação.
-    private EstatisticasCampo estatisticas;
+    // Desenha o campo, com as cores de cada participante da simulação.
+    private RenderizadorDeCampo renderizador;
+    // Recebe os quadros do simulador e os exibe na thread de eventos do Swing.
+    private CanalDeQuadros canal;
 
     /**
      * Cria uma visão com a largura e altura fornecidas.
@@ -49,8 +55,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
     public VisaoDeGrade(int altura, int largura, Simulador simulador)
     {
         this.simulador = simulador;
-        estatisticas = new EstatisticasCampo();
-        cores = new LinkedHashMap<>();
+        renderizador = new RenderizadorDeCampo();
 
         setTitle("Simulação de Raposas e Coelhos");
         rotuloPasso = new JLabel(PREFIXO_PASSO, JLabel.CENTER);
@@ -69,10 +74,13 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         painelSuperior.add(botaoSimulacaoLonga);
         painelSuperior.add(botaoReiniciarSimulacao);
         painelSuperior.add(botaoReiniciarRandomizador);
+        painelSuperior.add(botaoPausar);
+        painelSuperior.add(botaoParar);
 
         JPanel painelCentral = new JPanel(new BorderLayout());
         painelCentral.add(rotuloPasso, BorderLayout.NORTH);
         painelCentral.add(visaoCampo = new VisaoCampo(altura, largura), BorderLayout.CENTER);
+        painelCentral.add(controlePasso, BorderLayout.SOUTH);
 
         Container conteudo = getContentPane();
         conteudo.add(painelSuperior, BorderLayout.NORTH);
@@ -82,6 +90,8 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         pack();
         setVisible(true);
+
+        canal = new CanalDeQuadros("grade", QUADROS_POR_SEGUNDO, this::exibir);
     }
 
     /**
@@ -95,20 +105,32 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         botaoSimularUmPasso.setFont(botaoSimularUmPasso.getFont().deriveFont(14f));
         botaoReiniciarSimulacao.setFont(botaoReiniciarSimulacao.getFont().deriveFont(14f));
         botaoReiniciarRandomizador.setFont(botaoReiniciarRandomizador.getFont().deriveFont(14f));
+        botaoPausar.setFont(botaoPausar.getFont().deriveFont(14f));
+        botaoParar.setFont(botaoParar.getFont().deriveFont(14f));
     }
 
     /**
-     * Configura os botões que controlam a simulação.
-     * @param simulador O simulador associado a esta visão.
+     * Configura os botões que controlam a simulação. A simulação é sempre
+     * executada pelo executor do simulador (veja ExecutorDeSimulacao), nunca
+     * na thread de eventos do Swing, que assim não é bloqueada e nunca altera
+     * o modelo enquanto um passo está em andamento.
      */
     private void configurarBotoes() {
+        controlePasso = new JSlider(0, 0, 0);
+        controlePasso.setEnabled(false);
+        controlePasso.addChangeListener(new ChangeListener() {
+            public void stateChanged(ChangeEvent e) {
+                if(!ajustandoControlePasso) {
+                    exibirPassoRegistrado(controlePasso.getValue());
+                }
+            }
+        });
+
         botaoSimulacaoLonga = new JButton("Simulação Longa");
         botaoSimulacaoLonga.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 desabilitarOpcoes();
-                // Executa a simulação longa em uma nova thread
-                // para não bloquear a interface do usuário.
-                new Thread(() -> simulador.executarSimulacaoLonga()).start();
+                iniciarExecucao(Simulador.PASSOS_SIMULACAO_LONGA, 0);
             }
         });
 
@@ -120,9 +142,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
                     int numeroDePassos = Integer.parseInt(resposta);
                     if (numeroDePassos > 0) {
                         desabilitarOpcoes();
-                        // Executa a simulação em uma nova thread
-                        // para não bloquear a interface do usuário.
-                        new Thread(() -> simulador.simular(numeroDePassos, 60)).start();
+                        iniciarExecucao(numeroDePassos, 60);
                     }
                 }
             }
@@ -132,9 +152,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         botaoSimularUmPasso.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 desabilitarOpcoes();
-                // Executa a simulação em uma nova thread
-                // para não bloquear a interface do usuário.
-                new Thread(() -> simulador.simular(1, 0)).start();
+                iniciarExecucao(1, 0);
             }
         });
 
@@ -142,7 +160,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         botaoReiniciarSimulacao.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 desabilitarOpcoes();
-                simulador.reiniciar();
+                simulador.obterExecutor().agendar(() -> simulador.reiniciar());
             }
         });
 
@@ -150,11 +168,54 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         botaoReiniciarRandomizador.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
                 desabilitarOpcoes();
-                Randomizador.resetar();
-                simulador.reiniciar();
+                simulador.obterExecutor().agendar(() -> {
+                    Randomizador.resetar();
+                    simulador.reiniciar();
+                });
+            }
+        });
+
+        botaoPausar = new JButton(ROTULO_PAUSAR);
+        botaoPausar.setEnabled(false);
+        botaoPausar.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                ExecutorDeSimulacao executor = simulador.obterExecutor();
+                if(executor.estaPausado()) {
+                    executor.retomar();
+                    botaoPausar.setText(ROTULO_PAUSAR);
+                }
+                else {
+                    executor.pausar();
+                    botaoPausar.setText(ROTULO_CONTINUAR);
+                }
+            }
+        });
+
+        botaoParar = new JButton("Parar");
+        botaoParar.setEnabled(false);
+        botaoParar.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                // As opções são reabilitadas quando a execução terminar.
+                botaoPausar.setEnabled(false);
+                botaoParar.setEnabled(false);
+                simulador.obterExecutor().cancelar();
             }
         });
     }
+
+    /**
+     * Pede ao executor que simule a quantidade fornecida de passos e
+     * habilita os botões que pausam e param a execução.
+     * @param passos Quantos passos simular.
+     * @param atraso Quanto esperar depois de cada passo, em milissegundos.
+     */
+    private void iniciarExecucao(int passos, int atraso)
+    {
+        simulador.obterExecutor().simular(passos, atraso);
+        botaoPausar.setText(ROTULO_PAUSAR);
+        botaoPausar.setEnabled(true);
+        botaoParar.setEnabled(true);
+    }
     
     /**
      * Define uma cor a ser usada para uma classe específica de animal.
@@ -164,67 +225,83 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
     @Override
     public void definirCor(Class<?> classeAnimal, Color cor)
     {
-        cores.put(classeAnimal, cor);
+        renderizador.definirCor(classeAnimal, cor);
     }
 
     /**
-     * @return A cor a ser usada para uma classe específica de animal.
+     * Recebe o estado atual do campo, que será exibido na thread de eventos
+     * do Swing (descartando o quadro anterior, se ainda não tiver sido exibido).
+     * @param quadro O estado da simulação a ser exibido.
      */
-    private Color obterCor(Class<?> classeAnimal)
+    @Override
+    public void mostrarStatus(Quadro quadro)
     {
-        Color cor = cores.get(classeAnimal);
-        if(cor == null) {
-            // nenhuma cor definida para esta classe
-            return COR_DESCONHECIDA;
-        }
-        else {
-            return cor;
-        }
+        canal.publicar(quadro);
     }
 
     /**
-     * Mostra o estado atual do campo.
-     * @param passo Qual iteração do passo está sendo exibida.
-     * @param campo O campo cujo estado será exibido.
+     * @return true Se o último quadro recebido já foi exibido.
      */
     @Override
-    public void mostrarStatus(int passo, Campo campo)
+    public boolean aguardandoQuadro()
+    {
+        return canal.estaVazio();
+    }
+
+    /**
+     * Exibe um quadro. Chamado na thread de eventos do Swing.
+     * @param quadro O estado da simulação a ser exibido.
+     */
+    private void exibir(Quadro quadro)
     {
         if(!isVisible()) {
             setVisible(true);
         }
             
-        rotuloPasso.setText(PREFIXO_PASSO + passo);
-        estatisticas.reiniciar();
+        rotuloPasso.setText(PREFIXO_PASSO + quadro.obterPasso());
         
-        visaoCampo.prepararPintura();
-
-        for(int linha = 0; linha < campo.obterComprimento(); linha++) {
-            for(int coluna = 0; coluna < campo.obterLargura(); coluna++) {
-                Object animal = campo.obterObjetoEm(linha, coluna);
-                if(animal != null) {
-                    estatisticas.incrementarContagem(animal.getClass());
-                    visaoCampo.desenharMarca(coluna, linha, obterCor(animal.getClass()));
-                }
-                else {
-                    visaoCampo.desenharMarca(coluna, linha, COR_VAZIA);
-                }
-            }
-        }
-        estatisticas.finalizarContagem();
+        // Só as posições que mudaram são redesenhadas, diretamente nos pixels
+        // da imagem; o componente a amplia ao ser pintado.
+        renderizador.atualizar(quadro);
 
-        populacao.setText(PREFIXO_POPULACAO + estatisticas.obterDetalhesPopulacao(campo));
+        populacao.setText(PREFIXO_POPULACAO + quadro.obterDetalhesPopulacao());
         visaoCampo.repaint();
     }
 
     /**
-     * Determina se a simulação deve continuar a ser executada.
-     * @return true Se houver mais de uma espécie viva.
+     * Exibe um passo já simulado, reconstruído a partir do registro de
+     * eventos, sem executar o modelo novamente.
+     * @param passo O passo a ser exibido.
      */
-    @Override
-    public boolean ehViavel(Campo campo)
+    private void exibirPassoRegistrado(int passo)
+    {
+        RegistroDeEventos registro = simulador.obterRegistroDeEventos();
+        if(registro == null || passo < registro.obterPrimeiroPasso() 
+                            || passo > registro.obterUltimoPasso()) {
+            return;
+        }
+        // Um número de quadro fora da sequência do simulador força o
+        // redesenho completo, tanto agora quanto no próximo quadro dele.
+        exibir(registro.reconstruir(-1, passo));
+    }
+
+    /**
+     * Ajusta o controle de passo ao que foi registrado, com o passo atual selecionado.
+     */
+    private void atualizarControlePasso()
     {
-        return estatisticas.ehViavel(campo);
+        RegistroDeEventos registro = simulador.obterRegistroDeEventos();
+        ajustandoControlePasso = true;
+        if(registro != null && registro.obterUltimoPasso() >= 0) {
+            controlePasso.setMinimum(registro.obterPrimeiroPasso());
+            controlePasso.setMaximum(registro.obterUltimoPasso());
+            controlePasso.setValue(simulador.obterPasso());
+            controlePasso.setEnabled(true);
+        }
+        else {
+            controlePasso.setEnabled(false);
+        }
+        ajustandoControlePasso = false;
     }
 
     /** 
@@ -232,11 +309,18 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
       */
     @Override
     public void reabilitarOpcoes() {
-        botaoSimulacaoLonga.setEnabled(true);
-        botaoSimular.setEnabled(true);
-        botaoSimularUmPasso.setEnabled(true);
-        botaoReiniciarSimulacao.setEnabled(true);
-        botaoReiniciarRandomizador.setEnabled(true);
+        // Pode ser chamado pela thread da simulação.
+        SwingUtilities.invokeLater(() -> {
+            botaoSimulacaoLonga.setEnabled(true);
+            botaoSimular.setEnabled(true);
+            botaoSimularUmPasso.setEnabled(true);
+            botaoReiniciarSimulacao.setEnabled(true);
+            botaoReiniciarRandomizador.setEnabled(true);
+            botaoPausar.setText(ROTULO_PAUSAR);
+            botaoPausar.setEnabled(false);
+            botaoParar.setEnabled(false);
+            atualizarControlePasso();
+        });
     }
 
     /** 
@@ -248,6 +332,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         botaoSimularUmPasso.setEnabled(false);
         botaoReiniciarSimulacao.setEnabled(false);
         botaoReiniciarRandomizador.setEnabled(false);
+        controlePasso.setEnabled(false);
     }
     
     /**
@@ -255,7 +340,7 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
      */
     @Override
     public void reiniciar() {
-        estatisticas.reiniciar();
+        // nada a fazer nesta classe
     }
     
     /**
@@ -271,10 +356,6 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         private final int FATOR_ESCALA_GRADE = 6;
 
         private int larguraGrade, alturaGrade;
-        private int escalaX, escalaY;
-        Dimension tamanho;
-        private Graphics g;
-        private Image imagemCampo;
 
         /**
          * Cria um novo componente VisaoCampo.
@@ -283,7 +364,6 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         {
             alturaGrade = altura;
             larguraGrade = largura;
-            tamanho = new Dimension(0, 0);
         }
 
         /**
@@ -296,51 +376,16 @@ public class VisaoDeGrade extends JFrame implements VisaoSimulador
         }
 
         /**
-         * Prepara para uma nova rodada de pintura. Como o componente
-         * pode ser redimensionado, calcula novamente o fator de escala.
-         */
-        public void prepararPintura()
-        {
-            if(!tamanho.equals(getSize())) {  // se o tamanho mudou...
-                tamanho = getSize();
-                imagemCampo = visaoCampo.createImage(tamanho.width, tamanho.height);
-                g = imagemCampo.getGraphics();
-
-                escalaX = tamanho.width / larguraGrade;
-                if(escalaX < 1) {
-                    escalaX = FATOR_ESCALA_GRADE;
-                }
-                escalaY = tamanho.height / alturaGrade;
-                if(escalaY < 1) {
-                    escalaY = FATOR_ESCALA_GRADE;
-                }
-            }
-        }
-        
-        /**
-         * Pinta uma localização na grade deste campo com uma cor específica.
-         */
-        public void desenharMarca(int x, int y, Color cor)
-        {
-            g.setColor(cor);
-            g.fillRect(x * escalaX, y * escalaY, escalaX-1, escalaY-1);
-        }
-
-        /**
-         * O componente VisaoCampo precisa ser redesenhado. Copia a
-         * imagem interna para a tela.
+         * O componente VisaoCampo precisa ser redesenhado. Copia a imagem do
+         * renderizador (um pixel por posição) para a tela, ampliando-a para o
+         * tamanho atual do componente.
          */
         public void paintComponent(Graphics g)
         {
+            Image imagemCampo = renderizador.obterImagem();
             if(imagemCampo != null) {
                 Dimension tamanhoAtual = getSize();
-                if(tamanho.equals(tamanhoAtual)) {
-                    g.drawImage(imagemCampo, 0, 0, null);
-                }
-                else {
-                    // Redimensiona a imagem anterior.
-                    g.drawImage(imagemCampo, 0, 0, tamanhoAtual.width, tamanhoAtual.height, null);
-                }
+                g.drawImage(imagemCampo, 0, 0, tamanhoAtual.width, tamanhoAtual.height, null);
             }
         }
     }
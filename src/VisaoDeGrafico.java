@@ -16,6 +16,8 @@ import java.util.*;
 public class VisaoDeGrafico implements VisaoSimulador
 {
     private static final Color CINZA_CLARO = new Color(0, 0, 0, 40);
+    // Número máximo de quadros exibidos por segundo.
+    private static final int QUADROS_POR_SEGUNDO = 30;
 
     private static JFrame frame;
     private static PainelDeGrafico grafico;
@@ -26,8 +28,8 @@ public class VisaoDeGrafico implements VisaoSimulador
     private Set<Class<?>> classes;
     // Um mapa para armazenar cores para participantes na simulação.
     private Map<Class<?>, Color> cores;
-    // Um objeto de estatísticas que calcula e armazena informações da simulação.
-    private EstatisticasCampo estatisticas;
+    // Recebe os quadros do simulador e os exibe na thread de eventos do Swing.
+    private CanalDeQuadros canal;
 
     /**
      * Construtor.
@@ -38,7 +40,6 @@ public class VisaoDeGrafico implements VisaoSimulador
      */
     public VisaoDeGrafico(int largura, int altura, int yMaximoInicial)
     {
-        estatisticas = new EstatisticasCampo();
         classes = new HashSet<>();
         cores = new HashMap<>();
 
@@ -48,6 +49,8 @@ public class VisaoDeGrafico implements VisaoSimulador
         else {
             grafico.novaExecucao();
         }
+        canal = new CanalDeQuadros("gráfico", QUADROS_POR_SEGUNDO, 
+                                   quadro -> grafico.atualizar(quadro.obterPasso(), quadro));
 
         //showStatus(0, null);
     }
@@ -66,28 +69,28 @@ public class VisaoDeGrafico implements VisaoSimulador
 
 
     /**
-     * Mostra o estado atual do campo. O estado é mostrado através de um gráfico de linha para as
+     * Recebe o estado atual do campo. O estado é mostrado através de um gráfico de linha para as
      * duas classes no campo. Essa visão atualmente não funciona para mais (ou menos) do que
      * exatamente duas classes. Se o campo tiver mais de dois tipos diferentes de aniimais,
-     * somente duas das classes são exibidas
+     * somente duas das classes são exibidas.
+     * O gráfico é atualizado na thread de eventos do Swing, a uma taxa limitada; quadros
+     * recebidos antes que o anterior tenha sido exibido são descartados.
      * 
-     * @param passo Qual iteração do passo está sendo exibida.
-     * @param campo O campo cujo estado será exibido.
+     * @param quadro O estado da simulação a ser exibido.
      */
     @Override
-    public void mostrarStatus(int passo, Campo campo)
+    public void mostrarStatus(Quadro quadro)
     {
-        grafico.atualizar(passo, campo, estatisticas);
+        canal.publicar(quadro);
     }
 
     /**
-     * Determina se a simulação deve continuar a ser executada.
-     * @return true Se houver mais de uma espécie viva.
+     * @return true Se o último quadro recebido já foi exibido.
      */
     @Override
-    public boolean ehViavel(Campo campo)
+    public boolean aguardandoQuadro()
     {
-        return estatisticas.ehViavel(campo);
+        return canal.estaVazio();
     }
 
     /**
@@ -95,8 +98,7 @@ public class VisaoDeGrafico implements VisaoSimulador
      */
     @Override
     public void reiniciar() {
-        estatisticas.reiniciar();
-        grafico.novaExecucao();
+        SwingUtilities.invokeLater(() -> grafico.novaExecucao());
     }
 
     /** 
@@ -184,16 +186,15 @@ public class VisaoDeGrafico implements VisaoSimulador
         /**
          * Exibe um novo ponto de dados.
          */
-        public void atualizar(int passo, Campo campo, EstatisticasCampo estatisticas)
+        public void atualizar(int passo, Quadro quadro)
         {
             if (classes.size() >= 2) {
                 Iterator<Class<?>> it = classes.iterator();
                 Class<?> classe1 = it.next();
                 Class<?> classe2 = it.next();
 
-                estatisticas.reiniciar();
-                int contagem1 = estatisticas.obterContagemPopulacao(campo, classe1);
-                int contagem2 = estatisticas.obterContagemPopulacao(campo, classe2);
+                int contagem1 = quadro.obterPopulacao(classe1);
+                int contagem2 = quadro.obterPopulacao(classe2);
 
                 Graphics g = imagemGrafico.getGraphics();
 
@@ -230,7 +231,7 @@ public class VisaoDeGrafico implements VisaoSimulador
                 repaint();
 
                 rotuloPasso.setText("" + passo);
-                rotuloContador.setText(estatisticas.obterDetalhesPopulacao(campo));
+                rotuloContador.setText(quadro.obterDetalhesPopulacao());
             }
         }
 
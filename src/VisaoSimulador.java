@@ -18,17 +18,21 @@ public interface VisaoSimulador
     public void definirCor(Class<?> classeAnimal, Color cor);
 
     /**
-     * Determina se a simulação deve continuar a ser executada.
-     * @return true Se houver mais de uma espécie viva.
+     * Recebe um quadro com o estado da simulação para ser mostrado.
+     * É chamado pela thread que executa a simulação e deve retornar
+     * rapidamente: visões gráficas apenas guardam o quadro, para exibi-lo
+     * depois na thread de eventos do Swing, descartando quadros anteriores
+     * que ainda não tenham sido exibidos.
+     * @param quadro O estado da simulação a ser exibido.
      */
-    public boolean ehViavel(Campo campo);
+    public void mostrarStatus(Quadro quadro);
 
     /**
-     * Mostra o estado atual do campo.
-     * @param passo Qual iteração do passo está sendo exibida.
-     * @param campo O campo cujo estado será exibido.
+     * Indica se a visão já exibiu o último quadro recebido. O simulador só
+     * cria novos quadros quando alguma visão estiver aguardando.
+     * @return true Se a visão estiver pronta para receber outro quadro.
      */
-    public void mostrarStatus(int passo, Campo campo);
+    public boolean aguardandoQuadro();
     
     /**
      * Prepara para uma nova execução